@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform
+
+import static org.assertj.core.api.Assertions.assertThat
+
+import groovy.json.JsonSlurper
+
+import org.junit.jupiter.api.Test
+
+class AggregationTest extends AbstractFunctionalTest {
+
+	private void writeSubproject(String name, String platformBlock) {
+		File dir = new File(projectDir, name)
+		dir.mkdirs()
+		new File(dir, 'build.gradle').text = """
+			plugins {
+				id 'org.standardout.bnd-platform'
+			}
+
+			repositories {
+				mavenCentral()
+			}
+
+			platform {
+				fetchSources = false
+				featureId = '${name}.feature'
+				${platformBlock}
+			}
+		""".stripIndent()
+	}
+
+	@Test
+	void bundlesAndFeaturesAreAggregated() {
+		settingsFile.text = """
+			rootProject.name = 'test-project'
+			include 'a', 'b'
+		""".stripIndent()
+		writeSubproject('a', """
+			bundle 'org.slf4j:slf4j-api:2.0.9'
+			bundle 'asm:asm:3.3.1'
+		""")
+		writeSubproject('b', """
+			bundle 'asm:asm:3.3.1'
+		""")
+		writeBuildFile("""
+			generatePlatformFeature = false
+		""")
+		buildFile << """
+			dependencies {
+				platformAggregate project(':a')
+				platformAggregate project(':b')
+			}
+		""".stripIndent()
+
+		runTask('generateCategory', 'artifactMap')
+
+		assertThat(bundlesDir.listFiles().findAll { it.name.startsWith('asm') })
+			.as('asm bundle should be included once')
+			.hasSize(1)
+		assertThat(findBundle('slf4j')).as('slf4j bundle of project a').isNotNull()
+
+		assertThat(findFeature('a.feature')).as('feature of project a').isNotNull()
+		assertThat(findFeature('b.feature')).as('feature of project b').isNotNull()
+
+		def category = new File(projectDir, 'build/category.xml').text
+		assertThat(category)
+			.contains('id="a.feature"')
+			.contains('id="b.feature"')
+
+		def artifactMap = new JsonSlurper().parse(new File(projectDir, 'build/bundleArtifactMap.json'))
+		assertThat(artifactMap.keySet().any { it.contains('slf4j') }).isTrue()
+		assertThat(artifactMap.keySet().any { it.contains('asm') }).isTrue()
+	}
+
+	@Test
+	void removedBundlesAreNotRetained() {
+		settingsFile.text = """
+			rootProject.name = 'test-project'
+			include 'a'
+		""".stripIndent()
+		writeSubproject('a', """
+			bundle 'org.slf4j:slf4j-api:2.0.9'
+			bundle 'asm:asm:3.3.1'
+		""")
+		writeBuildFile("""
+			generatePlatformFeature = false
+		""")
+		buildFile << """
+			dependencies {
+				platformAggregate project(':a')
+			}
+		""".stripIndent()
+
+		runTask('aggregatePlatform')
+
+		assertThat(findBundle('slf4j')).as('slf4j bundle of project a').isNotNull()
+
+		// remove the bundle from the aggregated project
+		writeSubproject('a', """
+			bundle 'asm:asm:3.3.1'
+		""")
+
+		runTask(':a:clean', 'aggregatePlatform')
+
+		assertThat(findBundle('slf4j')).as('removed bundle should no longer be aggregated').isNull()
+		assertThat(bundlesDir.listFiles().findAll { it.name.startsWith('asm') })
+			.as('asm bundle should still be included')
+			.hasSize(1)
+	}
+}
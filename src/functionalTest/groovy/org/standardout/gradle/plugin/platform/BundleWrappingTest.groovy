@@ -141,4 +141,86 @@ class BundleWrappingTest extends AbstractFunctionalTest {
 			.as('Bundle-Version should contain the custom qualifier')
 			.contains('myqualifier')
 	}
+
+	@Test
+	void sourceBundleCreationDeferred() {
+		writeBuildFile("""
+			fetchSources = true
+			deferSourceBundles = true
+			bundle 'com.google.code.gson:gson:2.10.1'
+		""")
+
+		runTask('bundles')
+
+		assertThat(findBundle('gson.source'))
+			.as('source bundle should not be created by the bundles task')
+			.isNull()
+
+		runTask('sourceBundles')
+
+		def sourceJar = findBundle('gson.source')
+		assertThat(sourceJar).as('source bundle should be created by the sourceBundles task').isNotNull()
+
+		def manifest = readManifest(sourceJar)
+		assertThat(manifest.mainAttributes.getValue('Eclipse-SourceBundle'))
+			.as('Eclipse-SourceBundle should reference the gson bundle')
+			.startsWith('com.google.gson;')
+		assertThat(manifest.mainAttributes.getValue('Export-Package'))
+			.as('source bundle should not export packages')
+			.isNull()
+	}
+
+	@Test
+	void reproducibleOutputIsByteIdentical() {
+		writeBuildFile("""
+			fetchSources = true
+			reproducibleOutput = true
+			bundle 'com.google.code.gson:gson:2.10.1'
+		""")
+
+		runTask('bundleFeatures')
+		byte[] bundle = findBundle('com.google.gson_').bytes
+		byte[] sourceBundle = findBundle('gson.source').bytes
+		byte[] feature = findFeature('platform.feature').bytes
+
+		// make sure the current time differs (Jar entry times have a resolution of two seconds)
+		Thread.sleep(2100)
+		runTask('clean', 'bundleFeatures')
+
+		assertThat(findBundle('com.google.gson_').bytes)
+			.as('bundle should be byte-identical when built again')
+			.isEqualTo(bundle)
+		assertThat(findBundle('gson.source').bytes)
+			.as('source bundle should be byte-identical when built again')
+			.isEqualTo(sourceBundle)
+		assertThat(findFeature('platform.feature').bytes)
+			.as('feature Jar should be byte-identical when built again')
+			.isEqualTo(feature)
+	}
+
+	@Test
+	void auxiliaryDependenciesAreAdded() {
+		writeBuildFile("""
+			bundle 'org.slf4j:slf4j-api:2.0.9'
+		""")
+		buildFile << """
+			dependencies {
+				platformaux 'org.slf4j:slf4j-api:1.7.36'
+				platformaux 'org.slf4j:slf4j-api:1.7.30'
+			}
+		""".stripIndent()
+
+		runTask('bundles')
+
+		def slf4jBundles = bundlesDir.listFiles().findAll { it.name.startsWith('slf4j.api_') }*.name
+		assertThat(slf4jBundles)
+			.as('resolved and both auxiliary versions should be present')
+			.anyMatch { it.contains('2.0.9') }
+			.anyMatch { it.contains('1.7.36') }
+			.anyMatch { it.contains('1.7.30') }
+
+		assertThat(bundlesDir.listFiles().findAll { it.name.startsWith('slf4j.api.source_1.7.36') })
+			.as('source bundle of auxiliary dependency should be created')
+			.hasSize(1)
+	}
 }
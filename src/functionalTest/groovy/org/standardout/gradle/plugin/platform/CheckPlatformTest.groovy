@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform
+
+import static org.assertj.core.api.Assertions.assertThat
+
+import java.util.jar.Attributes
+import java.util.jar.JarOutputStream
+import java.util.jar.Manifest
+import java.util.zip.ZipEntry
+
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+
+class CheckPlatformTest extends AbstractFunctionalTest {
+
+	@BeforeEach
+	void createConsumerBundle() {
+		Manifest manifest = new Manifest()
+		manifest.mainAttributes.put(Attributes.Name.MANIFEST_VERSION, '1.0')
+		manifest.mainAttributes.putValue('Bundle-ManifestVersion', '2')
+		manifest.mainAttributes.putValue('Bundle-SymbolicName', 'com.example.consumer')
+		manifest.mainAttributes.putValue('Bundle-Version', '1.0.0')
+		manifest.mainAttributes.putValue('Import-Package', 'com.example.missing;version="[1.0,2)",org.objectweb.asm')
+
+		File jar = new File(projectDir, 'lib/consumer.jar')
+		jar.parentFile.mkdirs()
+		new JarOutputStream(new FileOutputStream(jar), manifest).withCloseable { JarOutputStream out ->
+			out.putNextEntry(new ZipEntry('com/example/consumer/readme.txt'))
+			out.write('consumer'.bytes)
+			out.closeEntry()
+		}
+	}
+
+	@Test
+	void checkPlatformReportsUnresolvedImport() {
+		writeBuildFile("""
+			bundle files('lib/consumer.jar')
+			bundle 'asm:asm:3.3.1'
+		""")
+
+		def result = runTask('checkPlatform')
+
+		assertThat(result.output).contains('1 unresolved requirements')
+
+		String report = new File(projectDir, 'build/platformCheck.txt').text
+		assertThat(report)
+			.contains('Unresolved requirements (1)')
+			.contains('# com.example.consumer_1.0.0')
+			.contains('Import-Package com.example.missing [1.0,2)')
+		assertThat(report).as('import of the wrapped asm bundle should be resolved')
+			.doesNotContain('Import-Package org.objectweb.asm')
+	}
+
+	@Test
+	void checkPlatformFailsOnUnresolvedImport() {
+		writeBuildFile("""
+			bundle files('lib/consumer.jar')
+			bundle 'asm:asm:3.3.1'
+			failOnUnresolvedRequirements = true
+		""")
+
+		def result = runTaskAndFail('checkPlatform')
+
+		assertThat(result.output).contains('Platform check failed: 0 unreadable files, 1 unresolved requirements')
+		assertThat(new File(projectDir, 'build/platformCheck.txt').text)
+			.contains('Import-Package com.example.missing [1.0,2)')
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform
+
+import static org.assertj.core.api.Assertions.assertThat
+
+import groovy.json.JsonSlurper
+
+import org.junit.jupiter.api.Test
+
+class PlanTest extends AbstractFunctionalTest {
+
+	private Map readPlan() {
+		new JsonSlurper().parse(new File(projectDir, 'build/platformPlan.json')) as Map
+	}
+
+	@Test
+	void planDoesNotCreateBundles() {
+		writeBuildFile("""
+			bundle 'asm:asm:3.3.1'
+			bundle 'org.slf4j:slf4j-api:2.0.9'
+		""")
+
+		runTask('plan')
+
+		assertThat(findBundle('asm')).as('plan should not create bundles').isNull()
+
+		def plan = readPlan()
+		def asm = plan.bundles.find { it.symbolicName.contains('asm') }
+		assertThat(asm.action).as('asm should be planned to be wrapped').isEqualTo('wrap')
+		assertThat(asm.features).contains('platform.feature')
+		def slf4j = plan.bundles.find { it.symbolicName == 'slf4j.api' }
+		assertThat(slf4j.action).as('slf4j should be planned to be copied').isEqualTo('copy')
+
+		def result = runTask('plan')
+		assertThat(result.output).contains('0 changes to the previous plan')
+	}
+
+	@Test
+	void planContainsMergedBundle() {
+		writeBuildFile("""
+			merge {
+				match { it.name in ['gson', 'asm'] }
+				bnd {
+					symbolicName = 'com.merged.lib'
+					version = '1.0.0'
+				}
+			}
+			bundle 'com.google.code.gson:gson:2.10.1'
+			bundle 'asm:asm:3.3.1'
+		""")
+
+		runTask('plan')
+
+		def plan = readPlan()
+		def merged = plan.bundles.find { it.symbolicName == 'com.merged.lib' }
+		assertThat(merged).as('merged bundle should be planned').isNotNull()
+		assertThat(merged.action).isEqualTo('wrap')
+		assertThat(merged.mergeId as String).as('merged bundle should have the merge ID').startsWith('merge-')
+		assertThat(merged.mergeId).isEqualTo(merged.id)
+		assertThat(merged.mergedArtifacts as List)
+			.containsExactly('asm:asm:3.3.1', 'com.google.code.gson:gson:2.10.1')
+		assertThat(merged.features).contains('platform.feature')
+		assertThat(plan.bundles.findAll { it.symbolicName.contains('gson') || it.symbolicName == 'asm' })
+			.as('merged artifacts should not be planned as separate bundles')
+			.isEmpty()
+	}
+
+	@Test
+	void planReportsChangesToPreviousPlan() {
+		writeBuildFile("""
+			bundle 'asm:asm:3.3.1'
+		""")
+		runTask('plan')
+
+		writeBuildFile("""
+			bundle 'asm:asm:3.3.1'
+			bundle 'org.slf4j:slf4j-api:2.0.9'
+		""")
+		def result = runTask('plan')
+
+		assertThat(result.output)
+			.contains('2 changes to the previous plan')
+			.contains('+ bundle slf4j.api 2.0.9')
+
+		List<String> changes = new File(projectDir, 'build/platformPlan-diff.txt').readLines('UTF-8')
+		assertThat(changes).hasSize(2)
+		assertThat(changes[0]).isEqualTo('+ bundle slf4j.api 2.0.9')
+		assertThat(changes[1])
+			.startsWith('~ feature platform.feature')
+			.endsWith('added: slf4j.api_2.0.9')
+	}
+}
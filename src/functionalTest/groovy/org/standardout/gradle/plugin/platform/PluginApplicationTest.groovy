@@ -17,6 +17,10 @@ package org.standardout.gradle.plugin.platform
 
 import static org.assertj.core.api.Assertions.assertThat
 
+import java.util.jar.JarFile
+import java.util.jar.JarOutputStream
+import java.util.zip.ZipEntry
+
 import org.gradle.testkit.runner.TaskOutcome
 import org.junit.jupiter.api.Test
 
@@ -39,12 +43,16 @@ class PluginApplicationTest extends AbstractFunctionalTest {
 
 		assertThat(result.output)
 			.contains('bundles')
+			.contains('sourceBundles')
 			.contains('bundleFeatures')
 			.contains('generateCategory')
 			.contains('updateSite')
 			.contains('updateSiteZip')
 			.contains('artifactMap')
 			.contains('potentialOptionalImports')
+			.contains('checkPlatform')
+			.contains('repositoryIndex')
+			.contains('plan - ')
 	}
 
 	@Test
@@ -55,4 +63,71 @@ class PluginApplicationTest extends AbstractFunctionalTest {
 
 		assertThat(result.task(':bundles').outcome).isIn(TaskOutcome.SUCCESS, TaskOutcome.UP_TO_DATE)
 	}
+
+	@Test
+	void bundlesTaskSucceedsWithConfigurationCache() {
+		writeBuildFile("""
+			bundle 'asm:asm:3.3.1'
+		""")
+
+		def tasks = ['bundles', 'bundleFeatures', 'generateCategory', 'artifactMap', '--configuration-cache'] as String[]
+
+		def first = runTask(tasks)
+		assertThat(first.output).contains('Configuration cache entry stored')
+
+		new File(projectDir, 'build').deleteDir()
+
+		def second = runTask(tasks)
+		assertThat(second.output).contains('Reusing configuration cache')
+		assertThat(second.task(':bundles').outcome).isEqualTo(TaskOutcome.SUCCESS)
+		assertThat(findBundle('asm')).as('asm bundle should be created from the cached model').isNotNull()
+		assertThat(findFeature('platform.feature')).isNotNull()
+		assertThat(new File(projectDir, 'build/category.xml')).exists()
+		assertThat(new File(projectDir, 'build/bundleArtifactMap.json').text).contains('asm')
+	}
+
+	@Test
+	void configurationCacheIsNotReusedIfPlatformJarChanged() {
+		File jar = new File(projectDir, 'lib/example.jar')
+		writeJar(jar, 'com/example/first.txt')
+
+		writeBuildFile("""
+			bundle file('lib/example.jar'), {
+				bnd {
+					version = '1.0.0'
+					symbolicName = 'com.example.lib'
+				}
+			}
+		""")
+
+		def tasks = ['bundles', '--configuration-cache'] as String[]
+
+		def first = runTask(tasks)
+		assertThat(first.output).contains('Configuration cache entry stored')
+
+		new File(projectDir, 'build').deleteDir()
+		writeJar(jar, 'com/example/second.txt', 'com/example/third.txt')
+		jar.lastModified = jar.lastModified() + 2000
+
+		def second = runTask(tasks)
+		assertThat(second.output).doesNotContain('Reusing configuration cache')
+
+		File bundle = findBundle('com.example.lib')
+		assertThat(bundle).as('bundle should be created from the changed Jar').isNotNull()
+		new JarFile(bundle).withCloseable { JarFile bundleJar ->
+			assertThat(bundleJar.getEntry('com/example/second.txt')).isNotNull()
+			assertThat(bundleJar.getEntry('com/example/first.txt')).isNull()
+		}
+	}
+
+	private static void writeJar(File jar, String... entries) {
+		jar.parentFile.mkdirs()
+		new JarOutputStream(new FileOutputStream(jar)).withCloseable { JarOutputStream out ->
+			entries.each { String name ->
+				out.putNextEntry(new ZipEntry(name))
+				out.write(name.bytes)
+				out.closeEntry()
+			}
+		}
+	}
 }
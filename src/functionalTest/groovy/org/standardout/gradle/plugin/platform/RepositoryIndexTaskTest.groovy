@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform
+
+import static org.assertj.core.api.Assertions.assertThat
+
+import java.util.jar.Attributes
+import java.util.jar.JarOutputStream
+import java.util.jar.Manifest
+import java.util.zip.GZIPInputStream
+import java.util.zip.ZipEntry
+
+import org.junit.jupiter.api.Test
+
+class RepositoryIndexTaskTest extends AbstractFunctionalTest {
+
+	private void writeBundle(String symbolicName, Map<String, String> headers = [:]) {
+		Manifest manifest = new Manifest()
+		manifest.mainAttributes.put(Attributes.Name.MANIFEST_VERSION, '1.0')
+		manifest.mainAttributes.putValue('Bundle-ManifestVersion', '2')
+		manifest.mainAttributes.putValue('Bundle-SymbolicName', symbolicName)
+		manifest.mainAttributes.putValue('Bundle-Version', '1.0.0')
+		headers.each { key, value ->
+			manifest.mainAttributes.putValue(key, value)
+		}
+
+		File jar = new File(projectDir, "lib/${symbolicName}.jar")
+		jar.parentFile.mkdirs()
+		new JarOutputStream(new FileOutputStream(jar), manifest).withCloseable { JarOutputStream out ->
+			out.putNextEntry(new ZipEntry("${symbolicName.replace('.', '/')}/readme.txt"))
+			out.write(symbolicName.bytes)
+			out.closeEntry()
+		}
+	}
+
+	private String readIndex() {
+		new GZIPInputStream(new FileInputStream(new File(projectDir, 'build/index.xml.gz'))).withCloseable { InputStream input ->
+			input.getText('UTF-8')
+		}
+	}
+
+	@Test
+	void repositoryIndexOnlyAnalyzesChangedBundles() {
+		writeBundle('com.example.a', ['Export-Package': 'com.example.a;version="1.0.0"'])
+		writeBundle('com.example.b', ['Import-Package': 'com.example.a'])
+
+		writeBuildFile("""
+			bundle files('lib/com.example.a.jar', 'lib/com.example.b.jar')
+		""")
+
+		def first = runTask('repositoryIndex', '--info')
+		assertThat(first.output).contains('(2 bundles analyzed, 0 unchanged)')
+		assertThat(readIndex()).doesNotContain('com.example.b.api')
+
+		// change one bundle
+		writeBundle('com.example.b', [
+			'Import-Package': 'com.example.a',
+			'Export-Package': 'com.example.b.api;version="1.0.0"'
+		])
+
+		def second = runTask('repositoryIndex', '--info')
+		assertThat(second.output).contains('(1 bundles analyzed, 1 unchanged)')
+
+		String index = readIndex()
+		assertThat(index).as('index should contain the export of the changed bundle').contains('com.example.b.api')
+		assertThat(index).contains('com.example.a')
+	}
+}
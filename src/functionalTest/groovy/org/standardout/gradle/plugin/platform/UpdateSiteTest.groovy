@@ -48,6 +48,13 @@ class UpdateSiteTest extends AbstractFunctionalTest {
 		assertThat(contentJar.exists() || contentXml.exists())
 			.as('content.jar or content.xml should exist').isTrue()
 
+		assertThat(new File(updateSiteDir, 'content.xml.xz')).as('content.xml.xz should exist').isFile()
+		assertThat(new File(updateSiteDir, 'artifacts.xml.xz')).as('artifacts.xml.xz should exist').isFile()
+		assertThat(new File(updateSiteDir, 'p2.index').text)
+			.as('p2.index should advertise the XZ compressed metadata')
+			.contains('metadata.repository.factory.order=content.xml.xz')
+			.contains('artifact.repository.factory.order=artifacts.xml.xz')
+
 		assertThat(pluginsOut).as('plugins/ should exist').isDirectory()
 		assertThat(featuresOut).as('features/ should exist').isDirectory()
 		assertThat(pluginsOut.listFiles()?.find {
@@ -17,6 +17,7 @@ package org.standardout.gradle.plugin.platform
 
 import groovy.io.FileType
 import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
 
 import java.util.jar.*
 
@@ -24,17 +25,42 @@ import org.gradle.api.GradleException
 import org.gradle.api.Plugin
 import org.gradle.api.Project
 import org.gradle.api.Task
+import org.gradle.api.artifacts.ConfigurablePublishArtifact
+import org.gradle.api.artifacts.Configuration
+import org.gradle.api.artifacts.Dependency
+import org.gradle.api.artifacts.FileCollectionDependency
+import org.gradle.api.artifacts.ProjectDependency
+import org.gradle.api.artifacts.type.ArtifactTypeDefinition
+import org.gradle.api.attributes.Usage
+import org.gradle.api.file.FileCollection
+import org.gradle.api.file.CopySpec
+import org.gradle.api.logging.Logger
 import org.gradle.api.plugins.BasePlugin
+import org.gradle.api.provider.Provider
+import org.gradle.api.tasks.bundling.Zip
+import org.gradle.process.ExecSpec
 import org.osgi.framework.Version
-import org.standardout.gradle.plugin.platform.internal.BundleArtifact
 import org.standardout.gradle.plugin.platform.internal.BundlesAction
-import org.standardout.gradle.plugin.platform.internal.DefaultFeature
-import org.standardout.gradle.plugin.platform.internal.Feature
-import org.standardout.gradle.plugin.platform.internal.ResolvedBundleArtifact
+import org.standardout.gradle.plugin.platform.internal.model.BundleSpec
+import org.standardout.gradle.plugin.platform.internal.model.FeatureSpec
+import org.standardout.gradle.plugin.platform.internal.model.PlatformModel
+import org.standardout.gradle.plugin.platform.internal.model.PlatformModelService
 import org.standardout.gradle.plugin.platform.internal.osdetect.SwtPlatform
 import org.standardout.gradle.plugin.platform.internal.util.FeatureUtil
+import org.standardout.gradle.plugin.platform.internal.util.P2Index
+import org.standardout.gradle.plugin.platform.internal.util.PlatformAggregate
+import org.standardout.gradle.plugin.platform.internal.util.PlatformPlan
 import org.standardout.gradle.plugin.platform.internal.util.VersionFile
+import org.standardout.gradle.plugin.platform.internal.util.VersionUtil
 import org.standardout.gradle.plugin.platform.internal.util.bnd.BndHelper
+import org.standardout.gradle.plugin.platform.internal.util.bnd.BundleHelper
+import org.standardout.gradle.plugin.platform.internal.util.bnd.PlatformCheck
+import org.standardout.gradle.plugin.platform.internal.util.bnd.RepositoryIndex
+import org.standardout.gradle.plugin.platform.internal.util.gradle.FileFingerprintSource
+import org.standardout.gradle.plugin.platform.internal.util.gradle.InjectedServices
+
+import de.undercouch.gradle.tasks.download.DownloadExtension
+import de.undercouch.gradle.tasks.download.DownloadSpec
 
 /**
  * OSGi platform plugin for Gradle.
@@ -47,6 +73,8 @@ public class PlatformPlugin implements Plugin<Project> {
 	public static final String TASK_BUNDLES = 'bundles'
 	public static final String CONF_PLATFORM = 'bndplatform'
 	public static final String CONF_AUX = 'platformaux'
+	public static final String CONF_AGGREGATE = 'platformAggregate'
+	public static final String CONF_ELEMENTS = 'platformElements'
 
 	private Project project
 
@@ -79,6 +107,12 @@ public class PlatformPlugin implements Plugin<Project> {
 		project.configurations.maybeCreate CONF_PLATFORM
 		project.configurations.maybeCreate CONF_AUX
 
+		// configuration for other projects to aggregate
+		Configuration aggregateConf = project.configurations.maybeCreate CONF_AGGREGATE
+		aggregateConf.canBeConsumed = false
+		aggregateConf.canBeResolved = true
+		aggregateConf.attributes.attribute(Usage.USAGE_ATTRIBUTE, project.objects.named(Usage, PlatformAggregate.USAGE))
+
 		project.afterEvaluate {
 			// feature version default
 			if (project.platform.featureVersion == null) {
@@ -102,6 +136,64 @@ public class PlatformPlugin implements Plugin<Project> {
 			if (!project.platform.downloadsDir.exists()) {
 				project.platform.downloadsDir.mkdirs()
 			}
+
+			if (project.platform.bundleStoreDir == null) {
+				project.platform.bundleStoreDir = new File(project.platform.downloadsDir, 'bundles')
+			}
+		}
+
+		/*
+		 * Values used by tasks that don't need access to the project at execution time.
+		 * They are captured as providers so they are evaluated after the build script
+		 * configured the platform extension and can be stored in the configuration cache.
+		 */
+		InjectedServices services = project.objects.newInstance(InjectedServices)
+		DownloadExtension download = project.extensions.getByType(DownloadExtension)
+		File pluginsDir = bundlesDir
+		File featureJarsDir = featuresDir
+		File categoryXml = categoryFile
+		File buildDir = project.buildDir
+		FileCollection aggregateFiles = aggregateConf
+		Provider<File> updateSiteDir = project.provider { project.platform.updateSiteDir }
+		Provider<File> eclipseHomeSetting = project.provider { project.platform.eclipseHome }
+		Provider<File> downloadsDir = project.provider { project.platform.downloadsDir }
+		Provider<String> eclipseMirror = project.provider { project.platform.eclipseMirror as String }
+		Provider<File> javaHome = project.provider { project.platform.javaHome }
+		Provider<Boolean> appendUpdateSite = project.provider { project.platform.appendUpdateSite }
+		Provider<Boolean> createFeatureVersionFiles = project.provider { project.platform.createFeatureVersionFiles }
+		Provider<Boolean> createXzMetadata = project.provider { project.platform.createXzMetadata }
+		Provider<String> platformFeatureId = project.provider { project.platform.featureId as String }
+		Provider<String> categoryId = project.provider { project.platform.categoryId as String }
+		Provider<String> categoryName = project.provider { project.platform.categoryName as String }
+
+		/*
+		 * The platform model (the bundles and features to create) is determined from the
+		 * resolved artifacts and the bnd configurations once per build and shared by the
+		 * tasks through a build service. With the configuration cache the model is
+		 * determined when the cache entry is stored, the input Jars are fingerprinted so
+		 * the entry is not reused if any of them changes.
+		 */
+		String platformFeaturePath = project.absoluteProjectPath('platformFeature')
+		String planPath = project.absoluteProjectPath('plan')
+		String bundlesPath = project.absoluteProjectPath(TASK_BUNDLES)
+		Provider<PlatformModel> platformModel = project.provider {
+			boolean includePlatformFeature = project.platform.generatePlatformFeature ||
+				project.gradle.taskGraph.hasTask(platformFeaturePath)
+			if (project.gradle.taskGraph.hasTask(planPath) && !project.gradle.taskGraph.hasTask(bundlesPath)) {
+				// new qualifiers must not be persisted if only the plan is determined
+				if (!VersionUtil.useTransientQualifierMap(project)) {
+					project.logger.warn 'A custom hashQualifierMap is used, qualifiers determined for the plan may be persisted'
+				}
+			}
+			PlatformModel model = new BundlesAction(project).createModel(includePlatformFeature)
+			project.providers.of(FileFingerprintSource) { spec ->
+				spec.parameters.files.from(model.inputFiles)
+			}.get()
+			model
+		}
+		Provider<PlatformModelService> modelService = project.gradle.sharedServices.registerIfAbsent(
+			"bndPlatformModel${project.path}", PlatformModelService) { spec ->
+			spec.parameters.model.set(platformModel)
 		}
 
 		// create bundles task
@@ -115,87 +207,170 @@ public class PlatformPlugin implements Plugin<Project> {
 		bundlesTask.dependsOn(project.configurations.getByName(CONF_PLATFORM).allArtifacts.buildDependencies)
 
 		// define bundles task
-		bundlesTask.doFirst(new BundlesAction(project, bundlesDir))
+		bundlesTask.usesService(modelService)
+		bundlesTask.doFirst { Task task ->
+			PlatformModel model = modelService.get().model
+
+			pluginsDir.mkdirs()
+
+			if (!model.bundles) {
+				task.logger.warn 'No platform artifacts could be found, no bundles created'
+				return
+			}
+
+			model.bundles.findAll { BundleSpec bundle -> !bundle.deferred }.each { BundleSpec bundle ->
+				BundleHelper.createBundle(model, bundle, pluginsDir, task.logger)
+			}
+		}
 
 		/*
-		 * Generate a default feature definition for the platform feature.
+		 * Create source bundles if their creation was deferred.
 		 */
-		Task platformFeatureTask = project.task('platformFeature', dependsOn: bundlesTask).doFirst {
-			// create platform feature.xml
-			generatePlatformFeature()
+		Task sourceBundlesTask = project.task('sourceBundles', dependsOn: bundlesTask) {
+			group 'bnd-platform'
+			description 'Create source bundles and write them to build/plugins, if deferSourceBundles is enabled'
+
+			usesService(modelService)
+
+			doFirst { Task task ->
+				PlatformModel model = modelService.get().model
+				model.bundles.findAll { BundleSpec bundle -> bundle.deferred }.each { BundleSpec bundle ->
+					BundleHelper.createBundle(model, bundle, pluginsDir, task.logger)
+				}
+			}
 		}
 
 		/*
-		 * Create JARs for all features.
+		 * Add the bundles and features of aggregated projects.
 		 */
-		Task bundleFeaturesTask = project.task('bundleFeatures', dependsOn: bundlesTask).doFirst {
-			featuresDir.mkdirs()
+		Task aggregatePlatformTask = project.task('aggregatePlatform', dependsOn: [
+			bundlesTask,
+			sourceBundlesTask
+		]) {
+			group 'bnd-platform'
+			description 'Add the bundles and features of the projects in the platformAggregate configuration to build/plugins and build/features'
+
+			// ensures the outputs of the aggregated projects are built
+			inputs.files(aggregateFiles)
+
+			usesService(modelService)
+
+			doFirst { Task task ->
+				PlatformModel model = modelService.get().model
+
+				// files copied by the previous run, to replace or remove them
+				File stateFile = new File(task.temporaryDir, 'aggregated.json')
+				Map previous = stateFile.exists() ? new JsonSlurper().parse(stateFile) as Map : [:]
+
+				List<String> ownBundles = model.bundles.collect { BundleSpec bundle ->
+					"${bundle.symbolicName}_${bundle.version}" as String
+				}
+				List<String> ownFeatures = model.features.collect { FeatureSpec feature ->
+					"${feature.id}_${feature.version}" as String
+				}
 
-			if(project.platform.generatePlatformFeature) {
-				generatePlatformFeature()
+				PlatformAggregate aggregate = new PlatformAggregate(aggregateFiles.files)
+				List<String> bundles = aggregate.copyBundles(pluginsDir, ownBundles,
+					previous.bundles as List<String> ?: [])
+				List<String> features = aggregate.copyFeatures(featureJarsDir, ownFeatures,
+					previous.features as List<String> ?: [])
+
+				stateFile.text = JsonOutput.toJson([bundles: bundles, features: features])
+
+				task.logger.info "Aggregated ${bundles.size()} bundles and ${features.size()} features from other projects."
 			}
+		}
+
+		/*
+		 * Generate a default feature definition for the platform feature.
+		 * The platform feature is part of the model if this task is run.
+		 */
+		Task platformFeatureTask = project.task('platformFeature', dependsOn: bundlesTask).doFirst { Task task ->
+			FeatureSpec feature = modelService.get().model.features.find { FeatureSpec f ->
+				f.id == platformFeatureId.get()
+			}
+			task.logger.info "Generated platform feature ${feature.id}_${feature.version}"
+		}
+		platformFeatureTask.usesService(modelService)
 
-			project.platform.features.values().each { Feature feature ->
-				File featureJar = new File(featuresDir, "${feature.id}_${feature.version}.jar")
+		/*
+		 * Create JARs for all features.
+		 */
+		Task bundleFeaturesTask = project.task('bundleFeatures', dependsOn: [
+			bundlesTask,
+			sourceBundlesTask
+		]).doFirst {
+			featureJarsDir.mkdirs()
 
-				use(FeatureUtil) { feature.createJar(featureJar) }
+			PlatformModel model = modelService.get().model
+			model.features.each { FeatureSpec feature ->
+				File featureJar = new File(featureJarsDir, "${feature.id}_${feature.version}.jar")
+
+				FeatureUtil.createJar(feature, featureJar, model.reproducibleOutput)
 			}
 		}
+		bundleFeaturesTask.usesService(modelService)
+
+		// features of the project take precedence when aggregating, so they should be known
+		aggregatePlatformTask.mustRunAfter(bundleFeaturesTask)
 
 		/*
 		 * Generate category.xml.
 		 */
-		Task generateCategoryTask = project.task('generateCategory', dependsOn: bundleFeaturesTask).doFirst {
-			categoryFile.parentFile.mkdirs()
+		Task generateCategoryTask = project.task('generateCategory', dependsOn: [
+			bundleFeaturesTask,
+			aggregatePlatformTask
+		]).doFirst { Task task ->
+			List<FeatureSpec> features = modelService.get().model.features
+
+			categoryXml.parentFile.mkdirs()
 
-			categoryFile.withWriter('UTF-8'){ w ->
+			categoryXml.withWriter('UTF-8'){ w ->
 				def xml = new groovy.xml.MarkupBuilder(w)
 				xml.setDoubleQuotes(true)
 				xml.mkp.xmlDeclaration(version:'1.0', encoding: 'UTF-8')
 
 				xml.site{
 					// all features
-					project.platform.features.values().each { Feature f ->
+					features.each { FeatureSpec f ->
 						feature(url: "features/${f.id}_${f.version}.jar",
 						id: f.id,
 						version: f.version) {
 							// associate the feature to the category
-							category(name: project.platform.categoryId)
+							category(name: categoryId.get())
+						}
+					}
+
+					// features of aggregated projects
+					new PlatformAggregate(aggregateFiles.files).features().each { PlatformAggregate.FeatureRef f ->
+						if (!features.any { it.id == f.id && it.version == f.version }) {
+							feature(url: "features/${f.id}_${f.version}.jar",
+							id: f.id,
+							version: f.version) {
+								category(name: categoryId.get())
+							}
 						}
 					}
 
 					// define the category
-					'category-def'(name: project.platform.categoryId, label: project.platform.categoryName)
+					'category-def'(name: categoryId.get(), label: categoryName.get())
 				}
 			}
 
-			project.logger.info 'Generated category.xml.'
+			task.logger.info 'Generated category.xml.'
 		}
+		generateCategoryTask.usesService(modelService)
 
 		/*
 		 * Task that checks if Eclipse is there / Eclipse home is specified.
 		 */
-		Task checkEclipseTask = project.task('checkEclipse').doFirst {
-			// path to Eclipse provided in extension
-			if (project.platform.eclipseHome != null) {
-				return
+		Task checkEclipseTask = project.task('checkEclipse').doFirst { Task task ->
+			if (!PlatformPlugin.findEclipseHome(eclipseHomeSetting.getOrNull(), downloadsDir.get())) {
+				PlatformPlugin.downloadAndExtractEclipse(eclipseMirror.get(), downloadsDir.get(),
+					download, services, task.logger)
 			}
 
-			// from system property
-			def eclipseHome = System.properties['ECLIPSE_HOME']
-
-			if (!eclipseHome) {
-				eclipseHome = checkDownloadedEclipse(project.platform.downloadsDir)
-				if (!eclipseHome) {
-					downloadAndExtractEclipse(project.platform.downloadsDir)
-					eclipseHome = checkDownloadedEclipse(project.platform.downloadsDir)
-				}
-			}
-
-			if (eclipseHome) {
-				project.platform.eclipseHome = eclipseHome as File
-			}
-			else {
+			if (!PlatformPlugin.findEclipseHome(eclipseHomeSetting.getOrNull(), downloadsDir.get())) {
 				throw new GradleException('no eclipseHome found.')
 			}
 		}
@@ -210,33 +385,34 @@ public class PlatformPlugin implements Plugin<Project> {
 		]) {
 			group 'bnd-platform'
 			description 'Create a p2 repository from the bundles and write it to build/updatesite'
-			doFirst {
-				project.platform.updateSiteDir.mkdirs()
+			doFirst { Task task ->
+				File siteDir = updateSiteDir.get()
+				siteDir.mkdirs()
 
-				assert project.platform.eclipseHome
-				def eclipseHome = project.platform.eclipseHome.absolutePath
+				File eclipseHomeDir = PlatformPlugin.findEclipseHome(eclipseHomeSetting.getOrNull(), downloadsDir.get())
+				assert eclipseHomeDir
+				def eclipseHome = eclipseHomeDir.absolutePath
 
-				def javaHome = project.platform.javaHome?.absolutePath
+				def javaHomePath = javaHome.getOrNull()?.absolutePath
 				def javaBin
-				if (javaHome) {
-					javaBin = "${javaHome}/bin/java"
+				if (javaHomePath) {
+					javaBin = "${javaHomePath}/bin/java"
 				}
 				else {
 					javaBin = "java"
 				}
 
 				// find launcher jar
-				def launcherFiles = project.ant.fileScanner {
-					fileset(dir: eclipseHome) { include(name: 'plugins/org.eclipse.equinox.launcher_*.jar') }
+				File launcherJar = new File(eclipseHomeDir, 'plugins').listFiles()?.find { File file ->
+					file.name.startsWith('org.eclipse.equinox.launcher_') && file.name.endsWith('.jar')
 				}
-				def launcherJar = launcherFiles.iterator().next()
 				assert launcherJar
 
-				project.logger.info "Using Java at $javaHome and Eclipse at $eclipseHome for p2 repository generation."
+				task.logger.info "Using Java at $javaHomePath and Eclipse at $eclipseHome for p2 repository generation."
 
-				def appendToSite = project.platform.appendUpdateSite
+				def appendToSite = appendUpdateSite.get()
 				if (appendToSite) {
-					project.logger.info "Appending to update site is enabled."
+					task.logger.info "Appending to update site is enabled."
 				}
 
 				/*
@@ -246,9 +422,9 @@ public class PlatformPlugin implements Plugin<Project> {
 				 */
 
 				// launch Publisher for Features and Bundles
-				def repoDirUri = URLDecoder.decode(project.platform.updateSiteDir.toURI().toString(), 'UTF-8')
-				def categoryFileUri = URLDecoder.decode(categoryFile.toURI().toString(), 'UTF-8')
-				project.providers.exec {
+				def repoDirUri = URLDecoder.decode(siteDir.toURI().toString(), 'UTF-8')
+				def categoryFileUri = URLDecoder.decode(categoryXml.toURI().toString(), 'UTF-8')
+				services.exec.exec { ExecSpec spec ->
 					def args = [
 						"${javaBin}",
 						'-jar',
@@ -260,7 +436,7 @@ public class PlatformPlugin implements Plugin<Project> {
 						'-artifactRepository',
 						repoDirUri,
 						'-source',
-						project.buildDir,
+						buildDir,
 						'-configs',
 						'ANY',
 						'-publishArtifacts',
@@ -269,11 +445,11 @@ public class PlatformPlugin implements Plugin<Project> {
 					if (appendToSite) {
 						args.add('-append')
 					}
-					commandLine = args
-				}.result.get()
+					spec.commandLine(args)
+				}
 
 				// launch Publisher for category / site.xml
-				project.providers.exec {
+				services.exec.exec { ExecSpec spec ->
 					def args = [
 						"${javaBin}",
 						'-jar',
@@ -289,59 +465,140 @@ public class PlatformPlugin implements Plugin<Project> {
 					if (appendToSite) {
 						args.add('-append')
 					}
-					commandLine = args
-				}.result.get()
+					spec.commandLine(args)
+				}
+
+				task.logger.info 'Built p2 repository.'
 
-				project.logger.info 'Built p2 repository.'
+				if (createFeatureVersionFiles.get()) {
+					VersionFile.createFeatureVersionFiles(siteDir)
+				}
 
-				def createFeatureVersionFiles = project.platform.createFeatureVersionFiles
-				if (createFeatureVersionFiles) {
-					VersionFile.createFeatureVersionFiles(project.platform.updateSiteDir)
+				if (createXzMetadata.get()) {
+					P2Index.createXzMetadata(siteDir)
 				}
 			}
 		}
 
 		/*
-		 * Archive update site.
+		 * Create an OSGi repository index for the bundles.
 		 */
-		Task siteArchiveTask = project.task('updateSiteZip', dependsOn: [updateSiteTask]) {
+		File repositoryIndexFile = new File(buildDir, 'index.xml.gz')
+		String repositoryName = project.name
+		Task repositoryIndexTask = project.task('repositoryIndex', dependsOn: [
+			bundlesTask,
+			sourceBundlesTask,
+			aggregatePlatformTask
+		]) {
 			group 'bnd-platform'
-			description 'Create a ZIP archive from the p2 repository and write it to build/updatesite.zip'
-			doFirst {
-				project.ant.zip(destfile: project.platform.updateSiteZipFile) {
-					fileset(dir: project.platform.updateSiteDir) { include(name: '**') }
+			description 'Create an OSGi repository index of the bundles in build/plugins and write it to build/index.xml.gz'
+
+			doFirst { Task task ->
+				def bundleFiles = []
+				if (pluginsDir.exists()) {
+					pluginsDir.eachFileRecurse(FileType.FILES) { File file ->
+						if (file.name.endsWith('.jar')) {
+							bundleFiles << file
+						}
+					}
 				}
+
+				RepositoryIndex index = new RepositoryIndex(repositoryName)
+				index.write(bundleFiles, repositoryIndexFile.parentFile, repositoryIndexFile)
+
+				task.logger.info "Wrote repository index $repositoryIndexFile (${index.analyzed} bundles analyzed, ${index.reused} unchanged)"
 			}
 		}
 
+		/*
+		 * Archive update site.
+		 */
+		Provider<Boolean> includeRepositoryIndex = project.provider { project.platform.includeRepositoryIndex }
+		Zip siteArchiveTask = project.task('updateSiteZip', type: Zip, dependsOn: [updateSiteTask]) {
+			group 'bnd-platform'
+			description 'Create a ZIP archive from the p2 repository and write it to build/updatesite.zip'
+
+			from updateSiteDir
+			// the index references the bundles in the plugins folder, as in the p2 repository
+			dependsOn includeRepositoryIndex.map { boolean include -> include ? [repositoryIndexTask] : [] }
+			from includeRepositoryIndex.map { boolean include -> include ? [repositoryIndexFile] : [] }
+			destinationDirectory.fileProvider(project.provider { project.platform.updateSiteZipFile.parentFile })
+			archiveFileName.set(project.provider { project.platform.updateSiteZipFile.name })
+		}
+
 		/*
 		 * Task that creates a Json file with a mapping of bundle name to
 		 */
 		Task artifactMapTask = project.task('artifactMap', dependsOn: bundlesTask).doFirst {
-			Map<String, BundleArtifact> artifacts = project.platform.artifacts
-
-			def report = [:]
-			artifacts.values().each { BundleArtifact artifact ->
-				if (!artifact.isSource() && artifact instanceof ResolvedBundleArtifact) {
-					// artifact that has a Maven dependency as it's direct source
-
-					def info = report[artifact.symbolicName]
-					if (!info) {
-						info = [:]
-						info.group = artifact.group
-						info.name = artifact.name
-						report[artifact.symbolicName] = info
-					}
+			// copy the report, the model is shared with other tasks
+			Map report = new JsonSlurper().parseText(JsonOutput.toJson(modelService.get().model.artifactMap)) as Map
 
-					if (!info.versions) {
-						info.versions = [:]
-					}
-					info.versions[artifact.modifiedVersion] = artifact.version
+			// artifacts of aggregated projects
+			new PlatformAggregate(aggregateFiles.files).mergeArtifactMaps(report)
+
+			File reportFile = new File(buildDir, PlatformAggregate.ARTIFACT_MAP_NAME)
+			reportFile.text = JsonOutput.prettyPrint(JsonOutput.toJson(report))
+		}
+		artifactMapTask.dependsOn(aggregateConf)
+		artifactMapTask.usesService(modelService)
+
+		/*
+		 * Determine the bundles and features without creating them.
+		 */
+		Task planTask = project.task('plan') {
+			group 'bnd-platform'
+			description 'Determine the bundles and features that would be created, without creating them, and write the plan to build/platformPlan.json'
+
+			usesService(modelService)
+
+			doFirst { Task task ->
+				PlatformPlan plan = PlatformPlan.create(modelService.get().model)
+
+				File planFile = new File(buildDir, 'platformPlan.json')
+				PlatformPlan previous = PlatformPlan.read(planFile)
+				List<String> changes = plan.diff(previous)
+				plan.write(planFile)
+
+				File diffFile = new File(buildDir, 'platformPlan-diff.txt')
+				diffFile.setText(changes.collect { it + '\n' }.join(''), 'UTF-8')
+
+				if (previous == null) {
+					task.logger.lifecycle "Planned ${plan.bundles.size()} bundles and ${plan.features.size()} features - see $planFile"
+				}
+				else {
+					task.logger.lifecycle "Planned ${plan.bundles.size()} bundles and ${plan.features.size()} features, ${changes.size()} changes to the previous plan - see $diffFile"
+					changes.each { task.logger.lifecycle "  $it" }
 				}
 			}
+		}
+		planTask.dependsOn(project.configurations.getByName(CONF_PLATFORM).allArtifacts.buildDependencies)
 
-			File reportFile = new File(project.buildDir, 'bundleArtifactMap.json')
-			reportFile.text = JsonOutput.prettyPrint(JsonOutput.toJson(report))
+		/*
+		 * The platform model can only be determined when the configuration cache entry
+		 * is stored if the Jars of the platform dependencies already exist then.
+		 */
+		project.afterEvaluate {
+			boolean builtDependencies = [CONF_PLATFORM, CONF_AUX].any { String name ->
+				project.configurations.getByName(name).allDependencies.any { Dependency dep ->
+					dep instanceof ProjectDependency ||
+						(dep instanceof FileCollectionDependency && !dep.buildDependencies.getDependencies(null).empty)
+				}
+			}
+			if (builtDependencies) {
+				String reason = 'The bnd-platform model is determined when the configuration cache entry is stored, but some platform dependencies are built by other tasks'
+				[
+					bundlesTask,
+					sourceBundlesTask,
+					aggregatePlatformTask,
+					platformFeatureTask,
+					bundleFeaturesTask,
+					generateCategoryTask,
+					artifactMapTask,
+					planTask
+				].each { Task task ->
+					task.notCompatibleWithConfigurationCache(reason)
+				}
+			}
 		}
 
 		/**
@@ -360,7 +617,7 @@ public class PlatformPlugin implements Plugin<Project> {
 			description 'Creates a potentialOptionalImports.txt file of imported packages of all generated bundles with the optionalImport instruction'
 
 			doFirst {
-				def reportFile = new File(project.buildDir, 'potentialOptionalImports.txt').newWriter()
+				def reportFile = new File(buildDir, 'potentialOptionalImports.txt').newWriter()
 				reportFile << '''Unfortunately optional dependencies specified in a pom.xml file get lost in Gradle,
 therefore optionalImport instructions for the bnd configuration are used quite frequently.
 This task should help to generate the optional import statements,
@@ -372,7 +629,7 @@ See https://github.com/stempler/bnd-platform/issues/19#issuecomment-253797523
 '''
 				def bundlesWithoutImports = []
 
-				bundlesDir.eachFileRecurse (FileType.FILES) { bundle ->
+				pluginsDir.eachFileRecurse (FileType.FILES) { bundle ->
 					def symbolicNameAndPackageImports = BndHelper.getSymbolicNameAndPackageImports(bundle)
 
 					if(!symbolicNameAndPackageImports.second.empty) {
@@ -392,6 +649,70 @@ See https://github.com/stempler/bnd-platform/issues/19#issuecomment-253797523
 				reportFile.close()
 			}
 		}
+
+		/*
+		 * Checks if the requirements of the created bundles can be resolved against each other.
+		 */
+		Provider<Set<String>> systemPackages = project.provider { project.platform.systemPackages as Set<String> }
+		Provider<Set<String>> systemBundles = project.provider { project.platform.systemBundles as Set<String> }
+		Provider<Boolean> failOnUnresolvedRequirements = project.provider { project.platform.failOnUnresolvedRequirements }
+		Task checkPlatformTask = project.task('checkPlatform', dependsOn: [
+			bundlesTask,
+			aggregatePlatformTask
+		]) {
+			group 'bnd-platform'
+			description 'Checks if package imports and required bundles of all bundles in build/plugins can be resolved and writes the result to build/platformCheck.txt'
+
+			doFirst { Task task ->
+				def bundleFiles = []
+				if (pluginsDir.exists()) {
+					pluginsDir.eachFileRecurse(FileType.FILES) { File file ->
+						if (file.name.endsWith('.jar')) {
+							bundleFiles << file
+						}
+					}
+				}
+
+				PlatformCheck check = new PlatformCheck(systemPackages.get(), systemBundles.get()).check(bundleFiles)
+
+				File reportFile = new File(buildDir, 'platformCheck.txt')
+				reportFile.withWriter('UTF-8') { Writer w ->
+					check.writeReport(w)
+				}
+
+				String summary = "${check.unreadableFiles.size()} unreadable files, ${check.unresolved.size()} unresolved requirements, ${check.versionMismatches.size()} version range mismatches and ${check.splitPackages.size()} split packages in ${check.bundleCount} bundles - see $reportFile"
+				if (check.ok) {
+					task.logger.info "Platform check: $summary"
+				}
+				else if (failOnUnresolvedRequirements.get()) {
+					throw new GradleException("Platform check failed: $summary")
+				}
+				else {
+					task.logger.warn "Platform check: $summary"
+				}
+			}
+		}
+
+		/*
+		 * Provide bundles, features and the artifact map to other projects,
+		 * so they can be aggregated without wrapping the bundles again.
+		 */
+		Configuration elementsConf = project.configurations.maybeCreate CONF_ELEMENTS
+		elementsConf.canBeConsumed = true
+		elementsConf.canBeResolved = false
+		elementsConf.attributes.attribute(Usage.USAGE_ATTRIBUTE, project.objects.named(Usage, PlatformAggregate.USAGE))
+		elementsConf.outgoing.artifact(bundlesDir) { ConfigurablePublishArtifact artifact ->
+			artifact.type = ArtifactTypeDefinition.DIRECTORY_TYPE
+			artifact.builtBy(bundlesTask, sourceBundlesTask, aggregatePlatformTask)
+		}
+		elementsConf.outgoing.artifact(featuresDir) { ConfigurablePublishArtifact artifact ->
+			artifact.type = ArtifactTypeDefinition.DIRECTORY_TYPE
+			artifact.builtBy(bundleFeaturesTask, aggregatePlatformTask)
+		}
+		elementsConf.outgoing.artifact(new File(buildDir, PlatformAggregate.ARTIFACT_MAP_NAME)) { ConfigurablePublishArtifact artifact ->
+			artifact.type = 'json'
+			artifact.builtBy(artifactMapTask)
+		}
 	}
 
 	/**
@@ -412,28 +733,52 @@ See https://github.com/stempler/bnd-platform/issues/19#issuecomment-253797523
 		}
 	}
 
-	private void downloadAndExtractEclipse(File downloadsDir) {
+	/**
+	 * Determine the Eclipse installation to use for building p2 repositories.
+	 *
+	 * @param eclipseHome the Eclipse home configured in the extension, may be <code>null</code>
+	 * @param downloadsDir the directory downloaded Eclipse installations are extracted to
+	 * @return the Eclipse home or <code>null</code> if none was found
+	 */
+	static File findEclipseHome(File eclipseHome, File downloadsDir) {
+		// path to Eclipse provided in extension
+		if (eclipseHome != null) {
+			return eclipseHome
+		}
+
+		// from system property
+		def eclipseHomeProperty = System.properties['ECLIPSE_HOME']
+		if (eclipseHomeProperty) {
+			return eclipseHomeProperty as File
+		}
+
+		checkDownloadedEclipse(downloadsDir)
+	}
+
+	static void downloadAndExtractEclipse(String artifactDownloadUrl, File downloadsDir,
+		DownloadExtension download, InjectedServices services, Logger logger) {
 		// Download artifact
-		def artifactDownloadUrl = project.platform.eclipseMirror
 		def filename = artifactDownloadUrl.substring(artifactDownloadUrl.lastIndexOf('/') + 1)
 		def artifactZipPath = new File(downloadsDir, filename)
 		def artifactZipPathPart = new File(downloadsDir, filename + '.part')
 		if (!artifactZipPath.exists()) {
-			project.download.run {
-				src artifactDownloadUrl
-				dest artifactZipPathPart
-				overwrite true
+			download.run { DownloadSpec spec ->
+				spec.src artifactDownloadUrl
+				spec.dest artifactZipPathPart
+				spec.overwrite true
 			}
 			artifactZipPathPart.renameTo(artifactZipPath)
 		}
 
 		// Unzip artifact
-		println('Copying ' + artifactZipPath + ' ...')
-		def artifactInstallPath = downloadsDir
-		project.ant.untar(src: artifactZipPath, dest: artifactInstallPath, compression: 'gzip')
+		logger.lifecycle('Copying ' + artifactZipPath + ' ...')
+		services.fileSystem.copy { CopySpec spec ->
+			spec.from services.archives.tarTree(services.archives.gzip(artifactZipPath))
+			spec.into downloadsDir
+		}
 	}
 
-	private File checkDownloadedEclipse(File downloadsDir) {
+	static File checkDownloadedEclipse(File downloadsDir) {
 		for (String subDir in [
 				'eclipse',
 				'Eclipse.app/Contents/Eclipse'
@@ -446,21 +791,4 @@ See https://github.com/stempler/bnd-platform/issues/19#issuecomment-253797523
 
 		return null
 	}
-
-	/**
-	 * Generate a default feature definition for the platform feature.
-	 */
-	private void generatePlatformFeature() {
-		Feature feature = new DefaultFeature(
-			id: project.platform.featureId,
-			label: project.platform.featureName,
-			version: project.platform.featureVersion,
-			providerName: project.platform.featureProvider,
-			bundles: project.platform.artifacts.values().toList(),
-			includedFeatures: project.platform.features.values().toList(),
-			project: project
-			)
-
-		project.platform.features[feature.id] = feature
-	}
 }
@@ -33,6 +33,7 @@ import org.standardout.gradle.plugin.platform.internal.config.MergeConfig
 import org.standardout.gradle.plugin.platform.internal.config.SourceFeature
 import org.standardout.gradle.plugin.platform.internal.config.StoredConfig
 import org.standardout.gradle.plugin.platform.internal.config.StoredConfigImpl
+import org.standardout.gradle.plugin.platform.internal.util.bnd.PlatformCheck
 import org.standardout.gradle.plugin.platform.internal.util.gradle.DependencyHelper
 import org.standardout.gradle.plugin.platform.internal.util.gradle.DummyDependency
 
@@ -101,6 +102,10 @@ class PlatformPluginExtension {
 		importIgnorePackages << 'javax'
 		importIgnorePackages << 'java'
 		importIgnorePackages << 'license'
+
+		systemPackages = new HashSet<String>(PlatformCheck.DEFAULT_SYSTEM_PACKAGES)
+
+		systemBundles = new HashSet<String>(PlatformCheck.DEFAULT_SYSTEM_BUNDLES)
 	}
 
 	final Project project
@@ -115,6 +120,13 @@ class PlatformPluginExtension {
 	 */
 	boolean fetchSources = true
 
+	/**
+	 * States if the creation of source bundles should be deferred to the sourceBundles task, which
+	 * is only run if features or the update site are built. Source bundles for merged bundles are
+	 * always created with the merged bundle.
+	 */
+	boolean deferSourceBundles = false
+
 	/**
 	 * States if the package import versions for automatically wrapped bundles should be determined automatically.
 	 * This also will by default make package imports optional that are not found in dependencies.
@@ -143,6 +155,26 @@ class PlatformPluginExtension {
 	 */
 	final Set<String> importIgnorePackages
 
+	/**
+	 * Packages that are assumed to be provided by the runtime environment when
+	 * checking if the requirements of the platform bundles can be resolved.
+	 * Sub-packages are included.
+	 */
+	final Set<String> systemPackages
+
+	/**
+	 * Symbolic names of bundles that are assumed to be provided by the runtime
+	 * environment when checking if required bundles can be resolved, unless they
+	 * are part of the platform.
+	 */
+	final Set<String> systemBundles
+
+	/**
+	 * States if the checkPlatform task should fail if there are unreadable
+	 * files or unresolved mandatory requirements.
+	 */
+	boolean failOnUnresolvedRequirements = false
+
 	/**
 	 * The default version qualifier to use for wrapped bundles. If a qualifier is already
 	 * present the default will be appended, separated by a dash.
@@ -252,6 +284,13 @@ class PlatformPluginExtension {
 	 */
 	boolean removeSignaturesFromWrappedBundles = true
 
+	/**
+	 * States if bundles, source bundles and feature Jars should be created as reproducible output,
+	 * i.e. with sorted entries, fixed entry timestamps and a stable order of manifest headers,
+	 * so identical inputs yield byte-identical Jars.
+	 */
+	boolean reproducibleOutput = false
+
 	/**
 	 * States if a general feature should be created. By default it's turned on and called Generated platform feature.
 	 * In case custom features are generated you might not want to have an additional "generated platform feature"
@@ -314,6 +353,40 @@ class PlatformPluginExtension {
 	 */
 	boolean createFeatureVersionFiles = false
 
+	/**
+	 * States if wrapped bundles should be retrieved from and published to a bundle store that
+	 * may be shared between projects. Bundles in the store are identified by the input Jar and
+	 * the effective bnd configuration.
+	 */
+	boolean useBundleStore = false
+
+	/**
+	 * The directory of the shared bundle store. Defaults to <code>bundles</code> in the
+	 * {@link #downloadsDir}.
+	 */
+	File bundleStoreDir
+
+	/**
+	 * The maximum size of the shared bundle store in bytes. If it is exceeded, the least
+	 * recently used bundles are removed. Defaults to 2 GB.
+	 */
+	long bundleStoreMaxSize = 2L * 1024 * 1024 * 1024
+
+	/**
+	 * If after creating the update site, XZ compressed variants of the repository
+	 * metadata (content.xml.xz and artifacts.xml.xz) and a p2.index file referencing
+	 * them should be created. They are smaller and faster to load for clients that
+	 * support them, other clients use the content.jar and artifacts.jar files.
+	 */
+	boolean createXzMetadata = true
+
+	/**
+	 * If the OSGi repository index created by the repositoryIndex task should be included
+	 * in the update site archive, so the bundles can also be resolved by OSGi repository
+	 * consumers that don't support p2.
+	 */
+	boolean includeRepositoryIndex = true
+
 	/**
 	 * The directory of a local Eclipse installation. If none is specified the
 	 * <code>ECLIPSE_HOME</code> system property is checked, if it is not given as
@@ -15,9 +15,7 @@
  */
 package org.standardout.gradle.plugin.platform.internal
 
-import org.gradle.api.Action
 import org.gradle.api.Project
-import org.gradle.api.Task
 import org.gradle.api.artifacts.Configuration
 import org.gradle.api.artifacts.Dependency
 import org.gradle.api.artifacts.ResolvedArtifact
@@ -25,6 +23,8 @@ import org.gradle.api.artifacts.ResolvedConfiguration
 import org.gradle.api.artifacts.ResolvedDependency
 import org.osgi.framework.Version
 import org.standardout.gradle.plugin.platform.PlatformPlugin
+import org.standardout.gradle.plugin.platform.internal.model.FeatureSpec
+import org.standardout.gradle.plugin.platform.internal.model.PlatformModel
 import org.standardout.gradle.plugin.platform.internal.util.bnd.BndHelper
 import org.standardout.gradle.plugin.platform.internal.util.gradle.DependencyHelper
 
@@ -34,24 +34,106 @@ import aQute.bnd.osgi.Jar
 
 
 /**
- * Action that creates bundles.
+ * Determines the bundles and features to create from the platform dependencies.
  *
  * @author Robert Gregor
  * @author Simon Templer
  */
-class BundlesAction implements Action<Task> {
+class BundlesAction {
 
 	private final Project project
 
-	private final File targetDir
-
-	BundlesAction(Project project, File targetDir) {
+	BundlesAction(Project project) {
 		this.project = project
-		this.targetDir = targetDir
 	}
 
-	@Override
-	public void execute(Task task) {
+	/**
+	 * Determine the platform model from the platform dependencies, the bnd
+	 * configurations and the feature definitions. The platform artifacts and
+	 * features are registered in the platform extension.
+	 *
+	 * @param includePlatformFeature if the platform feature should be generated
+	 * @return the platform model
+	 */
+	PlatformModel createModel(boolean includePlatformFeature) {
+		def artifacts = resolveArtifacts()
+
+		PlatformModel model = new PlatformModel(
+			removeSignatures: project.platform.removeSignaturesFromWrappedBundles,
+			reproducibleOutput: project.platform.reproducibleOutput,
+			useBundleStore: project.platform.useBundleStore,
+			bundleStoreDir: project.platform.bundleStoreDir,
+			bundleStoreMaxSize: project.platform.bundleStoreMaxSize)
+
+		if (artifacts) {
+			project.logger.info "Processing ${artifacts.size()} dependency artifacts"
+			model.bundles = project.platform.configurations.bundleSpecs(artifacts.values().toList())
+		}
+
+		if (includePlatformFeature) {
+			generatePlatformFeature()
+		}
+
+		model.features = project.platform.features.values().collect { Feature feature ->
+			FeatureSpec.of(feature)
+		}
+
+		model.artifactMap = createArtifactMap(project.platform.artifacts.values())
+
+		model
+	}
+
+	/**
+	 * Generate a default feature definition for the platform feature.
+	 */
+	void generatePlatformFeature() {
+		Feature feature = new DefaultFeature(
+			id: project.platform.featureId,
+			label: project.platform.featureName,
+			version: project.platform.featureVersion,
+			providerName: project.platform.featureProvider,
+			bundles: project.platform.artifacts.values().toList(),
+			includedFeatures: project.platform.features.values().toList(),
+			project: project
+			)
+
+		project.platform.features[feature.id] = feature
+	}
+
+	/**
+	 * Create the mapping of bundle symbolic names to the Maven artifacts
+	 * they were created from.
+	 */
+	private static Map<String, Map> createArtifactMap(Iterable<BundleArtifact> artifacts) {
+		Map<String, Map> report = [:]
+		artifacts.each { BundleArtifact artifact ->
+			if (!artifact.isSource() && artifact instanceof ResolvedBundleArtifact) {
+				// artifact that has a Maven dependency as it's direct source
+
+				def info = report[artifact.symbolicName]
+				if (!info) {
+					info = [:]
+					info.group = artifact.group
+					info.name = artifact.name
+					report[artifact.symbolicName] = info
+				}
+
+				if (!info.versions) {
+					info.versions = [:]
+				}
+				info.versions[artifact.modifiedVersion] = artifact.version
+			}
+		}
+		report
+	}
+
+	/**
+	 * Resolve the platform dependencies and register the corresponding
+	 * artifacts in the platform extension.
+	 *
+	 * @return the artifacts mapped by ID
+	 */
+	Map<String, BundleArtifact> resolveArtifacts() {
 		Configuration config = project.getConfigurations().getByName(PlatformPlugin.CONF_PLATFORM)
 		ResolvedConfiguration resolved = config.resolvedConfiguration
 
@@ -115,34 +197,37 @@ class BundlesAction implements Action<Task> {
 		// check if explicitly defined auxiliary dependencies are already present
 		Configuration auxConfig = project.getConfigurations().getByName(PlatformPlugin.CONF_AUX)
 		def auxAddedDeps = new HashSet<String>()
-		auxConfig.dependencies.each { Dependency dep ->
-			if (dep.name) {
-				// only external deps supported
-				String id = "${dep.group}:${dep.name}:${dep.version}"
-
-				// check if artifact with given ID is already present
-				if (!artifacts.containsKey(id)) {
-					// if not, add the artifact
-					DependencyHelper.getArtifacts(project, dep).each {
-						if (it.extension == 'jar') {
-							// only Jars are valid artifacts (ignore poms)
-							BundleArtifact artifact = new ResolvedBundleArtifact(it, null, project, true)
-							artifacts[artifact.id] = artifact
-
-							auxAddedDeps << id
-
-							// also add source bundle if possible
-							ResolvedArtifact sourceArt = DependencyHelper.getDetachedArtifacts(project, id + ':sources').find { ResolvedArtifact art ->
-								art.extension == 'jar' && art.classifier == 'sources'
-							}
-							if (sourceArt) {
-								SourceBundleArtifact sourceArtifact = new SourceBundleArtifact(sourceArt, project)
-								artifacts[sourceArtifact.id] = sourceArtifact
-								// associate to parent artifact
-								sourceArtifact.parentBundle = artifact
-								artifact.sourceBundle = sourceArtifact
-							}
-						}
+		// only external deps supported, check if artifact with given ID is already present
+		List<Dependency> auxDeps = auxConfig.dependencies.findAll { Dependency dep ->
+			dep.name && !artifacts.containsKey("${dep.group}:${dep.name}:${dep.version}" as String)
+		}.toList()
+		// resolve the artifacts together with the sources in a batch
+		Map<Dependency, Set<ResolvedArtifact>> auxArtifacts = DependencyHelper.getArtifactsWithSources(project, auxDeps)
+		auxDeps.each { Dependency dep ->
+			String id = "${dep.group}:${dep.name}:${dep.version}"
+			Set<ResolvedArtifact> resolvedArtifacts = auxArtifacts[dep] ?: []
+			boolean sourcesRequested = DependencyHelper.getClassifier(dep) == 'sources'
+
+			// source bundle if possible
+			ResolvedArtifact sourceArt = sourcesRequested ? null : resolvedArtifacts.find { ResolvedArtifact art ->
+				art.extension == 'jar' && art.classifier == 'sources'
+			}
+
+			resolvedArtifacts.each {
+				// only Jars are valid artifacts (ignore poms)
+				if (it.extension == 'jar' && (sourcesRequested || it.classifier != 'sources')) {
+					BundleArtifact artifact = new ResolvedBundleArtifact(it, null, project, true)
+					artifacts[artifact.id] = artifact
+
+					auxAddedDeps << id
+
+					// also add source bundle if possible
+					if (sourceArt) {
+						SourceBundleArtifact sourceArtifact = new SourceBundleArtifact(sourceArt, project)
+						artifacts[sourceArtifact.id] = sourceArtifact
+						// associate to parent artifact
+						sourceArtifact.parentBundle = artifact
+						artifact.sourceBundle = sourceArtifact
 					}
 				}
 			}
@@ -203,16 +288,7 @@ class BundlesAction implements Action<Task> {
 			}
 		}
 
-		targetDir.mkdirs()
-
-		if(!artifacts) {
-			project.logger.warn 'No platform artifacts could be found, no bundles created'
-			return
-		} else {
-			project.logger.info "Processing ${artifacts.size()} dependency artifacts:"
-		}
-
-		project.platform.configurations.createBundles(artifacts.values(), targetDir)
+		artifacts
 	}
 
 	// methods logging information for easier debugging
@@ -56,7 +56,9 @@ class ResolvedBundleArtifact implements BundleArtifact, DependencyArtifact {
 
 	final String name
 
-	final PomInfo pomInfo
+	PomInfo getPomInfo() {
+		resolveMetadata().pomInfo
+	}
 
 	BundleArtifact sourceBundle
 
@@ -65,19 +67,16 @@ class ResolvedBundleArtifact implements BundleArtifact, DependencyArtifact {
 		version
 	}
 
-	private final String os
 	@Override public String getOs() {
-		os
+		resolveMetadata().os
 	}
 
-	private final String arch
 	@Override public String getArch() {
-		arch
+		resolveMetadata().arch
 	}
 
-	private final String ws
 	@Override public String getWs() {
-		ws
+		resolveMetadata().ws
 	}
 
 	private final boolean source
@@ -85,32 +84,27 @@ class ResolvedBundleArtifact implements BundleArtifact, DependencyArtifact {
 		source
 	}
 
-	private final String bundleName
 	String getBundleName() {
-		bundleName
+		resolveMetadata().bundleName
 	}
 
-	private final String symbolicName
 	String getSymbolicName() {
-		symbolicName
+		resolveMetadata().symbolicName
 	}
 
 	/**
 	 * Should the bundle be wrapped?
 	 */
-	private final boolean wrap
 	boolean isWrap() {
-		wrap
+		resolveMetadata().wrap
 	}
 
-	private final String noWrapReason
 	String getNoWrapReason() {
-		noWrapReason
+		resolveMetadata().noWrapReason
 	}
 
-	private final BndConfig bndConfig
 	BndConfig getBndConfig() {
-		bndConfig
+		resolveMetadata().bndConfig
 	}
 
 	final String unifiedName
@@ -120,9 +114,8 @@ class ResolvedBundleArtifact implements BundleArtifact, DependencyArtifact {
 		id
 	}
 
-	private final String modifiedVersion
 	String getModifiedVersion() {
-		modifiedVersion
+		resolveMetadata().modifiedVersion
 	}
 
 	String getTargetFileName() {
@@ -139,6 +132,29 @@ class ResolvedBundleArtifact implements BundleArtifact, DependencyArtifact {
 		artifact
 	}
 
+	private final Project project
+
+	private final boolean aux
+
+	/**
+	 * Artifact properties that are determined on demand, as they require reading
+	 * the Jar manifest and the POM and evaluating the bnd configuration.
+	 */
+	private static class Metadata {
+		String bundleName
+		String symbolicName
+		boolean wrap
+		String noWrapReason
+		BndConfig bndConfig
+		PomInfo pomInfo
+		String modifiedVersion
+		String os
+		String arch
+		String ws
+	}
+
+	private Metadata metadata
+
 	/**
 	 * Create a bundle artifact from a resolved artifact.
 	 */
@@ -146,6 +162,8 @@ class ResolvedBundleArtifact implements BundleArtifact, DependencyArtifact {
 	Project project, final boolean aux = false) {
 		this.dependency = dependency
 		this.artifact = artifact
+		this.project = project
+		this.aux = aux
 		// extract information from artifact
 		this.file = artifact.file
 		this.classifier = artifact.classifier
@@ -153,13 +171,37 @@ class ResolvedBundleArtifact implements BundleArtifact, DependencyArtifact {
 		this.group = artifact.moduleVersion.id.group
 		this.name = artifact.moduleVersion.id.name
 		this.version = artifact.moduleVersion.id.version
-		def bundleVersion = this.version
-
-		// derived information
 
 		// is this a source bundle
 		source = artifact.classifier == 'sources'
 
+		// the unified name (that is equal for corresponding source and normal jars)
+		// it also is the key for the bundle dependency (if any)
+		def unifiedName = "$group:$name:$version"
+		// the qualified id (including classifier, unique)
+		if (classifier) {
+			id = unifiedName + ":$classifier"
+		}
+		else {
+			id = unifiedName
+		}
+		this.unifiedName = unifiedName
+	}
+
+	/**
+	 * Get the artifact metadata, determine it if it was not accessed before.
+	 */
+	private synchronized Metadata resolveMetadata() {
+		if (metadata == null) {
+			metadata = determineMetadata()
+		}
+		metadata
+	}
+
+	private Metadata determineMetadata() {
+		Metadata result = new Metadata()
+		def bundleVersion = this.version
+
 		// bundle and symbolic name
 		def bundleName = group + '.' + name
 		def symbolicName = getDefaultSymbolicName(file, group, name)
@@ -178,7 +220,7 @@ class ResolvedBundleArtifact implements BundleArtifact, DependencyArtifact {
 		if (source || extension != 'jar') {
 			// never wrap
 			wrap = false
-			noWrapReason = 'artifact type not supported'
+			result.noWrapReason = 'artifact type not supported'
 			if (source) {
 				symbolicName += '.source'
 				bundleName += ' Sources'
@@ -190,7 +232,7 @@ class ResolvedBundleArtifact implements BundleArtifact, DependencyArtifact {
 			if (jarInfo.symbolicName && jarInfo.version) {
 				// assume it's already a bundle
 				wrap = false
-				noWrapReason = 'jar already constains OSGi manifest entries'
+				result.noWrapReason = 'jar already constains OSGi manifest entries'
 
 				// determine bundle names
 				symbolicName = jarInfo.symbolicName
@@ -201,22 +243,10 @@ class ResolvedBundleArtifact implements BundleArtifact, DependencyArtifact {
 			else {
 				// not a bundle yet
 				wrap = true
-				noWrapReason = ''
+				result.noWrapReason = ''
 			}
 		}
 
-		// the unified name (that is equal for corresponding source and normal jars)
-		// it also is the key for the bundle dependency (if any)
-		def unifiedName = "$group:$name:$version"
-		// the qualified id (including classifier, unique)
-		if (classifier) {
-			id = unifiedName + ":$classifier"
-		}
-		else {
-			id = unifiedName
-		}
-		this.unifiedName = unifiedName
-
 		// determine osgi version
 		Version osgiVersion = VersionUtil.toOsgiVersion(bundleVersion) {
 			project.logger.warn "Replacing illegal OSGi version $bundleVersion by ${it} for artifact $name"
@@ -232,25 +262,22 @@ class ResolvedBundleArtifact implements BundleArtifact, DependencyArtifact {
 		// determine additional configuration from information in POM
 		StoredConfig pomConfig = null
 		if (!source && project.platform.extractPomInformation) {
-			pomInfo = extractPomInfo(group: group, name: name, version: version, project)
-			if (pomInfo) {
-				pomConfig = pomInfo.toStoredConfig()
+			result.pomInfo = extractPomInfo(group: group, name: name, version: version, project)
+			if (result.pomInfo) {
+				pomConfig = result.pomInfo.toStoredConfig()
 				if (pomConfig) {
 					// prepend configuration
 					pomConfig >> config
 				}
 			}
 		}
-		else {
-			pomInfo = null
-		}
 
 		// an eventually modified version
 		def modifiedVersion = osgiVersion.toString()
 		// a qualifier to add
 		boolean addQualifier = false
 
-		bndConfig = config.evaluate(project, group, name, modifiedVersion, file, jarInfo?.instructions)
+		BndConfig bndConfig = config.evaluate(project, group, name, modifiedVersion, file, jarInfo?.instructions)
 		if (bndConfig) {
 			if (!wrap && !source) {
 				wrap = true // must be wrapped to apply configuration
@@ -300,16 +327,18 @@ class ResolvedBundleArtifact implements BundleArtifact, DependencyArtifact {
 
 		// Extract target platform constraints if present
 		if(platformFilter) {
-			ws = (platformFilter =~ /.*\(osgi\.ws\=(.*?)\).*/)[ 0 ][ 1 ]
-			os = (platformFilter =~ /.*\(osgi\.os\=(.*?)\).*/)[ 0 ][ 1 ]
-			arch = (platformFilter =~ /.*\(osgi\.arch\=(.*?)\).*/)[ 0 ][ 1 ]
+			result.ws = (platformFilter =~ /.*\(osgi\.ws\=(.*?)\).*/)[ 0 ][ 1 ]
+			result.os = (platformFilter =~ /.*\(osgi\.os\=(.*?)\).*/)[ 0 ][ 1 ]
+			result.arch = (platformFilter =~ /.*\(osgi\.arch\=(.*?)\).*/)[ 0 ][ 1 ]
 		}
 
-		this.modifiedVersion = modifiedVersion
+		result.bndConfig = bndConfig
+		result.modifiedVersion = modifiedVersion
+		result.bundleName = bundleName
+		result.symbolicName = symbolicName
+		result.wrap = wrap
 
-		this.bundleName = bundleName
-		this.symbolicName = symbolicName
-		this.wrap = wrap
+		result
 	}
 
 	@Override
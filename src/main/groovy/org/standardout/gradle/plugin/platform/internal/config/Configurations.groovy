@@ -21,6 +21,7 @@ import org.osgi.framework.Version
 import org.standardout.gradle.plugin.platform.PlatformPluginExtension
 import org.standardout.gradle.plugin.platform.internal.BundleArtifact
 import org.standardout.gradle.plugin.platform.internal.DependencyArtifact
+import org.standardout.gradle.plugin.platform.internal.model.BundleSpec
 import org.standardout.gradle.plugin.platform.internal.util.VersionUtil
 import org.standardout.gradle.plugin.platform.internal.util.bnd.BundleHelper
 import org.standardout.gradle.plugin.platform.internal.util.groovy.LaxPropertyDecorator
@@ -82,11 +83,43 @@ class Configurations {
 	}
 
 	/**
-	 * Create bundles for the given artifacts.
+	 * Determine the bundles to create for the given artifacts. Merged artifacts
+	 * are replaced by the artifacts representing the merged bundles in the
+	 * platform artifacts.
 	 */
-	void createBundles(Iterable<BundleArtifact> artifacts, File targetDir) {
-		List<List<BundleArtifact>> mergeBuckets = new ArrayList<List<BundleArtifact>>(merges.size())
+	List<BundleSpec> bundleSpecs(Iterable<BundleArtifact> artifacts) {
 		List<BundleArtifact> remaining = []
+		List<List<BundleArtifact>> mergeBuckets = assignMerges(artifacts, remaining)
+
+		List<BundleSpec> specs = []
+
+		// merged bundles
+		mergeBuckets.eachWithIndex { def bundles, int index ->
+			if (bundles) {
+				specs.addAll(BundleHelper.mergeSpecs(project, merges[index], bundles))
+			}
+			else {
+				project.logger.warn 'No bundles match merge'
+			}
+		}
+
+		// other bundles
+		remaining.each { BundleArtifact art ->
+			specs.addAll(BundleHelper.bundleSpecs(project, art))
+		}
+
+		specs
+	}
+
+	/**
+	 * Assign the given artifacts to the configured merges.
+	 *
+	 * @param artifacts the artifacts
+	 * @param remaining the list to add the artifacts to that are not merged
+	 * @return the artifacts to merge, the list index corresponds to the merge index
+	 */
+	private List<List<BundleArtifact>> assignMerges(Iterable<BundleArtifact> artifacts, List<BundleArtifact> remaining) {
+		List<List<BundleArtifact>> mergeBuckets = new ArrayList<List<BundleArtifact>>(merges.size())
 
 		artifacts.each { BundleArtifact art ->
 			if (!art.isSource()) {
@@ -114,25 +147,7 @@ class Configurations {
 			}
 		}
 
-		// collect all jars for classpath
-		//		def jarFiles = artifacts.collect {
-		//			it.file
-		//		}
-
-		// merged bundles
-		mergeBuckets.eachWithIndex { def bundles, int index ->
-			if (bundles) {
-				BundleHelper.merge(project, merges[index], bundles, targetDir)
-			}
-			else {
-				project.logger.warn 'No bundles match merge'
-			}
-		}
-
-		// other bundles
-		remaining.each { BundleArtifact art ->
-			BundleHelper.bundle(project, art, targetDir)
-		}
+		mergeBuckets
 	}
 
 	/**
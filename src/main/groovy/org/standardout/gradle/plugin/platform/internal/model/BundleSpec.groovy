@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.internal.model
+
+/**
+ * A bundle to create, with the bnd configuration already evaluated.
+ */
+class BundleSpec implements Serializable {
+
+	private static final long serialVersionUID = 1L
+
+	enum Action {
+		/**
+		 * Wrap the Jar using bnd.
+		 */
+		WRAP,
+		/**
+		 * Copy the Jar as is.
+		 */
+		COPY,
+		/**
+		 * Create a source bundle by replacing the manifest.
+		 */
+		SOURCE
+	}
+
+	/**
+	 * ID of the artifact the bundle is created from.
+	 */
+	String id
+
+	String symbolicName
+
+	/**
+	 * The (modified) bundle version.
+	 */
+	String version
+
+	String targetFileName
+
+	Action action
+
+	/**
+	 * The input Jars, multiple Jars are merged before the bundle is created.
+	 */
+	List<File> files = []
+
+	/**
+	 * Settings for merging the input Jars, see {@link org.standardout.gradle.plugin.platform.internal.config.MergeConfig}.
+	 */
+	Map<String, Object> mergeProperties = [:]
+
+	/**
+	 * IDs of the merged artifacts, if the bundle is a merged bundle.
+	 */
+	List<String> mergedIds = []
+
+	/**
+	 * The bnd properties for wrapped bundles or the manifest headers for source bundles.
+	 */
+	Map<String, String> properties = [:]
+
+	/**
+	 * The reason why the Jar is copied instead of wrapped.
+	 */
+	String noWrapReason
+
+	/**
+	 * States if the bundle is a source bundle that is only created by the sourceBundles task.
+	 */
+	boolean deferred
+
+	/**
+	 * Set the properties, keys and values are converted to Strings.
+	 */
+	void setProperties(Map<?, ?> properties) {
+		this.properties = properties.collectEntries { key, value ->
+			[(key as String): value as String]
+		}
+	}
+}
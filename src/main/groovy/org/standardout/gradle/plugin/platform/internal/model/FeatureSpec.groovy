@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.internal.model
+
+import org.standardout.gradle.plugin.platform.internal.BundleArtifact
+import org.standardout.gradle.plugin.platform.internal.Feature
+
+/**
+ * A feature to create, with its content already determined.
+ */
+class FeatureSpec implements Serializable {
+
+	private static final long serialVersionUID = 1L
+
+	/**
+	 * A bundle included in the feature.
+	 */
+	static class Plugin implements Serializable {
+		private static final long serialVersionUID = 1L
+
+		String symbolicName
+		String version
+		String os
+		String arch
+		String ws
+	}
+
+	/**
+	 * A feature included in the feature.
+	 */
+	static class Included implements Serializable {
+		private static final long serialVersionUID = 1L
+
+		String id
+		String version
+	}
+
+	/**
+	 * A feature required by the feature.
+	 */
+	static class Required implements Serializable {
+		private static final long serialVersionUID = 1L
+
+		String featureName
+		String version
+		String match
+	}
+
+	String id
+	String label
+	String version
+	String providerName
+	String license
+	String description
+	String copyright
+	String plugin
+
+	List<Plugin> plugins = []
+
+	List<Included> includedFeatures = []
+
+	List<Required> requiredFeatures = []
+
+	/**
+	 * Create a feature specification from a feature.
+	 *
+	 * @param feature the feature, its configuration must be complete
+	 * @return the feature specification
+	 */
+	static FeatureSpec of(Feature feature) {
+		new FeatureSpec(
+			id: feature.id,
+			label: feature.label,
+			version: feature.version,
+			providerName: feature.providerName,
+			license: feature.license,
+			description: feature.description,
+			copyright: feature.copyright,
+			plugin: feature.plugin,
+			plugins: feature.bundles.collect { BundleArtifact artifact ->
+				new Plugin(
+					symbolicName: artifact.symbolicName,
+					version: artifact.modifiedVersion,
+					os: artifact.os,
+					arch: artifact.arch,
+					ws: artifact.ws)
+			},
+			includedFeatures: feature.includedFeatures.collect { Feature included ->
+				new Included(id: included.id, version: included.version)
+			},
+			requiredFeatures: feature.requiredFeatures.collect { Feature.RequiredFeature required ->
+				new Required(featureName: required.featureName, version: required.version, match: required.match)
+			})
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.internal.model
+
+/**
+ * The bundles and features of the platform as determined from the resolved
+ * artifacts and the evaluated bnd configurations, together with the settings
+ * needed to create them. It does not reference the project, so tasks using
+ * it can be stored in the configuration cache.
+ */
+class PlatformModel implements Serializable {
+
+	private static final long serialVersionUID = 1L
+
+	List<BundleSpec> bundles = []
+
+	List<FeatureSpec> features = []
+
+	/**
+	 * Maps bundle symbolic names to the Maven artifact information, as
+	 * written by the artifactMap task.
+	 */
+	Map<String, Map> artifactMap = [:]
+
+	boolean removeSignatures
+
+	boolean reproducibleOutput
+
+	boolean useBundleStore
+
+	File bundleStoreDir
+
+	long bundleStoreMaxSize
+
+	/**
+	 * @return the Jars the bundles are created from
+	 */
+	Set<File> getInputFiles() {
+		new LinkedHashSet<File>(bundles.collectMany { BundleSpec bundle -> bundle.files })
+	}
+}
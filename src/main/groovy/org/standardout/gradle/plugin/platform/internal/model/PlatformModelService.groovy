@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.internal.model
+
+import org.gradle.api.provider.Property
+import org.gradle.api.services.BuildService
+import org.gradle.api.services.BuildServiceParameters
+
+/**
+ * Build service holding the platform model of a project, so it is determined
+ * only once per build and shared by the tasks. With the configuration cache
+ * the model is determined when the cache entry is stored and restored with it.
+ */
+abstract class PlatformModelService implements BuildService<Parameters> {
+
+	interface Parameters extends BuildServiceParameters {
+		Property<PlatformModel> getModel()
+	}
+
+	PlatformModel getModel() {
+		parameters.model.get()
+	}
+}
@@ -33,6 +33,7 @@ class DefaultQualifierMap implements VersionQualifierMap {
 	private final String prefix
 	private final String fixedDateFormat
 	private final int startLevel
+	private final boolean persist
 
 	private final def dateLevels = [
 		'yyyy',
@@ -48,10 +49,20 @@ class DefaultQualifierMap implements VersionQualifierMap {
 		'yyyyMMddHHmmssSSS'] // millisecond
 	private def map
 
-	DefaultQualifierMap(File file, String prefix, int startLevel, String fixedDateFormat) {
+	/**
+	 * Create a qualifier map.
+	 *
+	 * @param file the file to load the map from and to store it to
+	 * @param prefix the qualifier prefix
+	 * @param startLevel the initial date level to use for qualifiers
+	 * @param fixedDateFormat a fixed date format to use for qualifiers, may be <code>null</code>
+	 * @param persist if new qualifiers should be stored to the file, otherwise they are only kept in memory
+	 */
+	DefaultQualifierMap(File file, String prefix, int startLevel, String fixedDateFormat, boolean persist = true) {
 		this.file = file
 		this.prefix = prefix
 		this.fixedDateFormat = fixedDateFormat
+		this.persist = persist
 		if (startLevel >= dateLevels.size()) {
 			this.startLevel = dateLevels.size() - 1
 		}
@@ -73,6 +84,13 @@ class DefaultQualifierMap implements VersionQualifierMap {
 		}
 	}
 
+	/**
+	 * Create a copy of this map that does not persist new qualifiers.
+	 */
+	DefaultQualifierMap transientCopy() {
+		new DefaultQualifierMap(file, prefix, startLevel, fixedDateFormat, false)
+	}
+
 	@Override
 	public String getQualifier(String type, String name, Version version,
 		String ident) {
@@ -138,7 +156,9 @@ class DefaultQualifierMap implements VersionQualifierMap {
 			artifactVersion[candidate] = ident
 
 			//FIXME persist
-			file.text = JsonOutput.prettyPrint(JsonOutput.toJson(map))
+			if (persist) {
+				file.text = JsonOutput.prettyPrint(JsonOutput.toJson(map))
+			}
 
 			return candidate
 		}
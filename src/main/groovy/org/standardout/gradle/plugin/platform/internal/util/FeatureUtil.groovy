@@ -18,12 +18,17 @@ package org.standardout.gradle.plugin.platform.internal.util
 import java.util.zip.ZipEntry
 import java.util.zip.ZipOutputStream
 
-import org.standardout.gradle.plugin.platform.internal.BundleArtifact
 import org.standardout.gradle.plugin.platform.internal.Feature
+import org.standardout.gradle.plugin.platform.internal.model.FeatureSpec
+import org.standardout.gradle.plugin.platform.internal.util.bnd.BndHelper
 
 class FeatureUtil {
 
 	static void createFeatureXml(Feature feature, File target) {
+		createFeatureXml(FeatureSpec.of(feature), target)
+	}
+
+	static void createFeatureXml(FeatureSpec feature, File target) {
 		target.parentFile.mkdirs()
 
 		target.withWriter('UTF-8'){ Writer w ->
@@ -32,11 +37,19 @@ class FeatureUtil {
 	}
 
 	static void createFeatureXml(Feature feature, OutputStream target) {
+		createFeatureXml(FeatureSpec.of(feature), target)
+	}
+
+	static void createFeatureXml(FeatureSpec feature, OutputStream target) {
 		Writer w = new OutputStreamWriter(target, 'UTF-8') //target.newWriter('UTF-8')
 		createFeatureXml(feature, w)
 	}
 
 	static void createFeatureXml(Feature feature, Writer target) {
+		createFeatureXml(FeatureSpec.of(feature), target)
+	}
+
+	static void createFeatureXml(FeatureSpec feature, Writer target) {
 		def xml = new groovy.xml.MarkupBuilder(target)
 		xml.setDoubleQuotes(true)
 		xml.mkp.xmlDeclaration(version:'1.0', encoding: 'UTF-8')
@@ -63,7 +76,7 @@ class FeatureUtil {
 				if (!feature.requiredFeatures.isEmpty()) {
 					requires() {
 						//required features
-						for (Feature.RequiredFeature required : feature.requiredFeatures.sort(true, { it.featureName })) {
+						for (FeatureSpec.Required required : feature.requiredFeatures.sort(false, { it.featureName })) {
 							def version = required.version?:'0.0.0'
 							def match = required.match?:"greaterOrEqual"
 							xml.import(feature: required.featureName, version: version, match:match)
@@ -73,19 +86,19 @@ class FeatureUtil {
 
 
 				// included features
-				for (Feature included : feature.includedFeatures.sort(true, { it.id })) {
+				for (FeatureSpec.Included included : feature.includedFeatures.sort(false, { it.id })) {
 					def version = included.version?:'0.0.0'
 					includes(id: included.id, version: version)
 				}
 
 				// included bundles
-				for (BundleArtifact artifact : feature.bundles.sort(true, { it.symbolicName })) {
+				for (FeatureSpec.Plugin artifact : feature.plugins.sort(false, { it.symbolicName })) {
 					// define each plug-in
 					def paramMap = [
 						'id': artifact.symbolicName,
 						'download-size': 0,
 						'install-size': 0,
-						version: artifact.modifiedVersion,
+						version: artifact.version,
 						unpack: false]
 
 					// omit empty/null for os/arch/ws (may not be present)
@@ -104,14 +117,22 @@ class FeatureUtil {
 			}
 	}
 
-	static void createJar(Feature feature, def jarFile) {
+	static void createJar(Feature feature, def jarFile, boolean reproducible = false) {
+		createJar(FeatureSpec.of(feature), jarFile, reproducible)
+	}
+
+	static void createJar(FeatureSpec feature, def jarFile, boolean reproducible = false) {
 		File target = jarFile as File
 		target.parentFile.mkdirs()
 
 		// create feature jar
 		target.withOutputStream {
 			ZipOutputStream zipStream = new ZipOutputStream(it)
-			zipStream.putNextEntry(new ZipEntry('feature.xml'))
+			ZipEntry entry = new ZipEntry('feature.xml')
+			if (reproducible) {
+				entry.time = BndHelper.REPRODUCIBLE_ENTRY_TIME
+			}
+			zipStream.putNextEntry(entry)
 			createFeatureXml(feature, zipStream)
 			zipStream.closeEntry()
 			zipStream.close()
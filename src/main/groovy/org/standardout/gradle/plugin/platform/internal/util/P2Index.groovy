@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.internal.util
+
+import java.util.zip.ZipFile
+
+import org.tukaani.xz.LZMA2Options
+import org.tukaani.xz.XZOutputStream
+
+class P2Index {
+
+	/**
+	 * Names of the p2 repository metadata files.
+	 */
+	static final List<String> METADATA_NAMES = ['content', 'artifacts'].asImmutable()
+
+	/**
+	 * Create XZ compressed variants of the p2 repository metadata and a
+	 * p2.index file that advertises them. The existing metadata files are
+	 * retained for clients that don't support XZ compressed metadata.
+	 *
+	 * @param updateSiteDir the location of the p2 repository
+	 */
+	static void createXzMetadata(File updateSiteDir) {
+		def available = METADATA_NAMES.findAll { String name ->
+			File xzFile = new File(updateSiteDir, "${name}.xml.xz")
+			xzFile.delete()
+			writeXz(updateSiteDir, name, xzFile)
+		}
+
+		if (available) {
+			def index = new StringBuilder('version=1\n')
+			if ('content' in available) {
+				index << 'metadata.repository.factory.order=content.xml.xz,content.xml,!\n'
+			}
+			if ('artifacts' in available) {
+				index << 'artifact.repository.factory.order=artifacts.xml.xz,artifacts.xml,!\n'
+			}
+			new File(updateSiteDir, 'p2.index').setText(index.toString(), 'UTF-8')
+		}
+	}
+
+	/**
+	 * Write the XZ compressed variant of a metadata file.
+	 *
+	 * @param updateSiteDir the location of the p2 repository
+	 * @param name the metadata name, e.g. <code>content</code>
+	 * @param xzFile the file to write
+	 * @return if the metadata was found and the file was written
+	 */
+	private static boolean writeXz(File updateSiteDir, String name, File xzFile) {
+		String xmlName = "${name}.xml"
+		File jarFile = new File(updateSiteDir, "${name}.jar")
+		File xmlFile = new File(updateSiteDir, xmlName)
+
+		if (jarFile.exists()) {
+			new ZipFile(jarFile).withCloseable { ZipFile zip ->
+				def entry = zip.getEntry(xmlName)
+				if (entry) {
+					zip.getInputStream(entry).withStream { InputStream input ->
+						compress(input, xzFile)
+					}
+					true
+				}
+				else {
+					false
+				}
+			}
+		}
+		else if (xmlFile.exists()) {
+			xmlFile.withInputStream { InputStream input ->
+				compress(input, xzFile)
+			}
+			true
+		}
+		else {
+			false
+		}
+	}
+
+	private static void compress(InputStream input, File target) {
+		target.withOutputStream { OutputStream out ->
+			new XZOutputStream(out, new LZMA2Options()).withStream { XZOutputStream xz ->
+				xz << input
+			}
+		}
+	}
+}
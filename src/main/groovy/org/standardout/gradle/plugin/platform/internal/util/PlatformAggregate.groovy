@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.internal.util
+
+import groovy.json.JsonSlurper
+
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.util.zip.ZipFile
+
+import org.standardout.gradle.plugin.platform.internal.util.bnd.JarInfo
+
+/**
+ * Combines the bundles, features and artifact maps created by the
+ * platform plugin in other projects, as provided through the
+ * {@link #USAGE} variant.
+ */
+class PlatformAggregate {
+
+	/**
+	 * Usage attribute value of the variant providing the platform outputs of a project.
+	 */
+	public static final String USAGE = 'bnd-platform'
+
+	public static final String BUNDLES_DIR_NAME = 'plugins'
+
+	public static final String FEATURES_DIR_NAME = 'features'
+
+	public static final String ARTIFACT_MAP_NAME = 'bundleArtifactMap.json'
+
+	/**
+	 * A feature that was aggregated.
+	 */
+	static class FeatureRef {
+		String id
+		String version
+		File file
+	}
+
+	private final Collection<File> files
+
+	/**
+	 * Create an aggregate.
+	 *
+	 * @param files the files provided by the aggregated projects, i.e. bundle
+	 *   and feature directories and artifact maps
+	 */
+	PlatformAggregate(Collection<File> files) {
+		this.files = files
+	}
+
+	/**
+	 * Copy the bundles of the aggregated projects. Bundles are identified by
+	 * symbolic name and version, bundles of the aggregating project take
+	 * precedence. Bundles copied previously are replaced, those that are no
+	 * longer provided by the aggregated projects are removed.
+	 *
+	 * @param targetDir the bundles directory
+	 * @param ownBundles symbolic name and version (separated by an underscore)
+	 *   of the bundles of the aggregating project
+	 * @param previous the names of the files copied by the previous aggregation
+	 * @return the names of the copied files
+	 */
+	List<String> copyBundles(File targetDir, Collection<String> ownBundles, Collection<String> previous = []) {
+		targetDir.mkdirs()
+
+		Set<String> present = new HashSet<>(ownBundles)
+		List<String> copied = []
+		jars(BUNDLES_DIR_NAME).each { File file ->
+			String key = bundleKey(file)
+			if (key && present.add(key)) {
+				Files.copy(file.toPath(), new File(targetDir, file.name).toPath(), StandardCopyOption.REPLACE_EXISTING)
+				copied << file.name
+			}
+		}
+
+		removeStale(targetDir, previous, copied) { File file ->
+			ownBundles.contains(bundleKey(file))
+		}
+		copied
+	}
+
+	/**
+	 * Determine the features of the aggregated projects. Features are
+	 * identified by ID and version.
+	 *
+	 * @return the features of the aggregated projects
+	 */
+	List<FeatureRef> features() {
+		Map<String, FeatureRef> features = new LinkedHashMap<>()
+		jars(FEATURES_DIR_NAME).each { File file ->
+			FeatureRef feature = readFeature(file)
+			if (feature) {
+				features.putIfAbsent("${feature.id}_${feature.version}" as String, feature)
+			}
+		}
+		features.values().toList()
+	}
+
+	/**
+	 * Copy the feature Jars of the aggregated projects. Features of the
+	 * aggregating project take precedence. Features copied previously are
+	 * replaced, those that are no longer provided by the aggregated projects
+	 * are removed.
+	 *
+	 * @param targetDir the features directory
+	 * @param ownFeatures ID and version (separated by an underscore) of the
+	 *   features of the aggregating project
+	 * @param previous the names of the files copied by the previous aggregation
+	 * @return the names of the copied files
+	 */
+	List<String> copyFeatures(File targetDir, Collection<String> ownFeatures, Collection<String> previous = []) {
+		targetDir.mkdirs()
+
+		List<String> copied = []
+		features().each { FeatureRef feature ->
+			String key = "${feature.id}_${feature.version}"
+			if (!ownFeatures.contains(key)) {
+				File target = new File(targetDir, key + '.jar')
+				Files.copy(feature.file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING)
+				copied << target.name
+			}
+		}
+
+		removeStale(targetDir, previous, copied) { File file ->
+			FeatureRef feature = readFeature(file)
+			feature != null && ownFeatures.contains("${feature.id}_${feature.version}" as String)
+		}
+		copied
+	}
+
+	/**
+	 * Remove files copied by a previous aggregation that were not copied again,
+	 * unless they now belong to the aggregating project.
+	 */
+	private static void removeStale(File targetDir, Collection<String> previous, Collection<String> copied,
+		Closure<Boolean> isOwn) {
+		previous.findAll { String name -> !copied.contains(name) }.each { String name ->
+			File file = new File(targetDir, name)
+			if (file.exists() && !isOwn(file)) {
+				file.delete()
+			}
+		}
+	}
+
+	/**
+	 * Merge the artifact maps of the aggregated projects into the given map.
+	 *
+	 * @param report the artifact map to merge into, mapping symbolic names to
+	 *   the artifact information
+	 * @return the merged artifact map
+	 */
+	Map mergeArtifactMaps(Map report) {
+		files.findAll { File file -> file.name == ARTIFACT_MAP_NAME && file.exists() }.each { File file ->
+			Map map = new JsonSlurper().parse(file) as Map
+			map.each { String symbolicName, Map info ->
+				Map existing = report[symbolicName]
+				if (existing == null) {
+					report[symbolicName] = info
+				}
+				else {
+					if (existing.versions == null) {
+						existing.versions = [:]
+					}
+					info.versions?.each { modifiedVersion, version ->
+						if (!existing.versions.containsKey(modifiedVersion)) {
+							existing.versions[modifiedVersion] = version
+						}
+					}
+				}
+			}
+		}
+		report
+	}
+
+	private List<File> jars(String dirName) {
+		List<File> result = []
+		files.findAll { File file -> file.name == dirName && file.directory }.each { File dir ->
+			dir.listFiles()?.findAll { File file -> file.name.endsWith('.jar') }?.sort { it.name }?.each {
+				result << it
+			}
+		}
+		result
+	}
+
+	private static String bundleKey(File file) {
+		if (!file.name.endsWith('.jar')) {
+			return null
+		}
+		JarInfo info = new JarInfo(file)
+		info.symbolicName ? "${info.symbolicName.trim()}_${info.version}" : null
+	}
+
+	/**
+	 * Read ID and version from a feature Jar.
+	 */
+	static FeatureRef readFeature(File featureJar) {
+		new ZipFile(featureJar).withCloseable { ZipFile zip ->
+			def entry = zip.getEntry('feature.xml')
+			if (entry == null) {
+				return null
+			}
+			def xml = zip.getInputStream(entry).withStream { InputStream input ->
+				new groovy.xml.XmlSlurper().parse(input)
+			}
+			new FeatureRef(id: xml.@id.text(), version: xml.@version.text(), file: featureJar)
+		}
+	}
+}
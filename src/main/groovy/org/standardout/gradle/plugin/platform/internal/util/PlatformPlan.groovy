@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.internal.util
+
+import groovy.json.JsonOutput
+import groovy.json.JsonSlurper
+
+import org.standardout.gradle.plugin.platform.internal.model.BundleSpec
+import org.standardout.gradle.plugin.platform.internal.model.FeatureSpec
+import org.standardout.gradle.plugin.platform.internal.model.PlatformModel
+
+/**
+ * The planned layout of a platform, i.e. the bundles and features that
+ * would be created, and the comparison with a previous plan.
+ */
+class PlatformPlan {
+
+	/**
+	 * Bundle entries with symbolicName, version, id, action (wrap, copy or source),
+	 * reason (if the bundle is not wrapped), mergeId and mergedArtifacts (for merged
+	 * bundles) and features (IDs of features including the bundle).
+	 */
+	final List<Map> bundles
+
+	/**
+	 * Feature entries with id, version and bundles (symbolic name and version).
+	 */
+	final List<Map> features
+
+	PlatformPlan(List<Map> bundles, List<Map> features) {
+		this.bundles = bundles
+		this.features = features
+	}
+
+	/**
+	 * Create a plan from the platform model.
+	 *
+	 * @param model the platform model
+	 * @return the plan
+	 */
+	static PlatformPlan create(PlatformModel model) {
+		Map<String, List<String>> bundleFeatures = [:]
+		List<Map> featureEntries = model.features.collect { FeatureSpec feature ->
+			def featureBundles = feature.plugins.collect { FeatureSpec.Plugin plugin ->
+				String key = "${plugin.symbolicName}_${plugin.version}"
+				bundleFeatures.get(key, []) << feature.id
+				key
+			}.sort()
+			[
+				id: feature.id,
+				version: feature.version,
+				bundles: featureBundles
+			]
+		}.sort { it.id }
+
+		List<Map> bundleEntries = model.bundles.collect { BundleSpec bundle ->
+			def entry = [
+				symbolicName: bundle.symbolicName,
+				version: bundle.version,
+				id: bundle.id,
+				action: bundle.action.name().toLowerCase()
+			]
+			if (bundle.action == BundleSpec.Action.COPY) {
+				entry.reason = bundle.noWrapReason
+			}
+			if (bundle.mergedIds) {
+				entry.mergeId = bundle.id
+				entry.mergedArtifacts = bundle.mergedIds.sort(false)
+			}
+			entry.features = (bundleFeatures["${bundle.symbolicName}_${bundle.version}" as String] ?: []).sort()
+			entry
+		}.sort { a, b -> a.symbolicName <=> b.symbolicName ?: a.version <=> b.version }
+
+		new PlatformPlan(bundleEntries, featureEntries)
+	}
+
+	/**
+	 * Read a plan from a file.
+	 *
+	 * @param file the plan file
+	 * @return the plan or <code>null</code> if the file does not exist
+	 */
+	static PlatformPlan read(File file) {
+		if (!file.exists()) {
+			return null
+		}
+		Map json = new JsonSlurper().parse(file) as Map
+		new PlatformPlan(json.bundles as List<Map> ?: [], json.features as List<Map> ?: [])
+	}
+
+	/**
+	 * Write the plan to a file.
+	 *
+	 * @param file the target file
+	 */
+	void write(File file) {
+		file.parentFile.mkdirs()
+		file.setText(JsonOutput.prettyPrint(JsonOutput.toJson([bundles: bundles, features: features])), 'UTF-8')
+	}
+
+	/**
+	 * Determine the differences to a previous plan. Lines start with <code>+</code> for
+	 * added, <code>-</code> for removed and <code>~</code> for changed bundles or features.
+	 *
+	 * @param previous the previous plan, may be <code>null</code>
+	 * @return the list of changes
+	 */
+	List<String> diff(PlatformPlan previous) {
+		List<String> changes = []
+
+		Map<String, List<Map>> current = bundles.groupBy { it.symbolicName as String }
+		Map<String, List<Map>> before = (previous?.bundles ?: []).groupBy { it.symbolicName as String }
+		(current.keySet() + before.keySet()).sort().each { String name ->
+			List<Map> now = current[name] ?: []
+			List<Map> prev = before[name] ?: []
+			if (!prev) {
+				changes << "+ bundle $name ${versions(now)}".toString()
+			}
+			else if (!now) {
+				changes << "- bundle $name ${versions(prev)}".toString()
+			}
+			else if (versions(now) != versions(prev)) {
+				changes << "~ bundle $name ${versions(prev)} -> ${versions(now)}".toString()
+			}
+			else {
+				now.each { Map entry ->
+					Map prevEntry = prev.find { it.version == entry.version }
+					['action', 'reason', 'mergedArtifacts', 'features'].each { String key ->
+						if (prevEntry != null && entry[key] != prevEntry[key]) {
+							changes << "~ bundle $name ${entry.version} $key: ${prevEntry[key]} -> ${entry[key]}".toString()
+						}
+					}
+				}
+			}
+		}
+
+		Map<String, Map> currentFeatures = features.collectEntries { [(it.id): it] }
+		Map<String, Map> featuresBefore = (previous?.features ?: []).collectEntries { [(it.id): it] }
+		(currentFeatures.keySet() + featuresBefore.keySet()).sort().each { String id ->
+			Map now = currentFeatures[id]
+			Map prev = featuresBefore[id]
+			if (prev == null) {
+				changes << "+ feature $id ${now.version}".toString()
+			}
+			else if (now == null) {
+				changes << "- feature $id ${prev.version}".toString()
+			}
+			else if (now.version != prev.version || now.bundles != prev.bundles) {
+				def added = (now.bundles ?: []) - (prev.bundles ?: [])
+				def removed = (prev.bundles ?: []) - (now.bundles ?: [])
+				def desc = "~ feature $id ${prev.version} -> ${now.version}"
+				if (added) {
+					desc += " added: ${added.join(', ')}"
+				}
+				if (removed) {
+					desc += " removed: ${removed.join(', ')}"
+				}
+				changes << desc.toString()
+			}
+		}
+
+		changes
+	}
+
+	private static String versions(List<Map> entries) {
+		entries.collect { it.version as String }.sort().join(', ')
+	}
+}
@@ -97,6 +97,25 @@ class VersionUtil {
 		}
 	}
 
+	/**
+	 * Configure the project to use a qualifier map that does not persist new
+	 * qualifiers, if the default qualifier map is used.
+	 *
+	 * @param project the Gradle project
+	 * @return if the qualifier map does not persist new qualifiers, <code>false</code>
+	 *   if a custom qualifier map is used
+	 */
+	static boolean useTransientQualifierMap(Project project) {
+		VersionQualifierMap map = getQualifierMap(project)
+		if (map instanceof DefaultQualifierMap) {
+			project.platform.hashQualifierMap = ((DefaultQualifierMap) map).transientCopy()
+			true
+		}
+		else {
+			map == null
+		}
+	}
+
 	/**
 	 * Add a qualifier to the bundle version.
 	 *
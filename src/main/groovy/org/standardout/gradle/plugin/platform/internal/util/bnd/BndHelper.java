@@ -16,14 +16,25 @@
 package org.standardout.gradle.plugin.platform.internal.util.bnd;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Calendar;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.GregorianCalendar;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
 
@@ -43,6 +54,13 @@ import aQute.libg.tuple.Pair;
  */
 public class BndHelper {
 
+	/**
+	 * Timestamp used for all Jar entries when creating reproducible output
+	 * (the same as used by Gradle for reproducible archives).
+	 */
+	public static final long REPRODUCIBLE_ENTRY_TIME = new GregorianCalendar(1980, Calendar.FEBRUARY, 1, 0, 0, 0)
+		.getTimeInMillis();
+
 	/**
 	 * Create a default builder.
 	 */
@@ -102,6 +120,31 @@ public class BndHelper {
 	 */
 	public static boolean wrap(File source, Collection<File> classpath, File target, Map<String, String> properties,
 		boolean removeSignature) throws Exception {
+		return wrap(source, classpath, target, properties, removeSignature, false);
+	}
+
+	/**
+	 * Wrap a Jar as it is, only changing the manifest.
+	 *
+	 * @param source
+	 *            the source jar
+	 * @param classpath
+	 *            the class path
+	 * @param target
+	 *            the target file
+	 * @param properties
+	 *            the bnd properties
+	 * @param removeSignature
+	 *            if signature files should be removed
+	 * @param reproducible
+	 *            if the Jar should be written with fixed entry timestamps
+	 * @return if the target file was created, it will not be created if the source
+	 *         Jar is empty or invalid
+	 * @throws Exception
+	 *             if wrapping the Jar fails
+	 */
+	public static boolean wrap(File source, Collection<File> classpath, File target, Map<String, String> properties,
+		boolean removeSignature, boolean reproducible) throws Exception {
 		File file = source;
 
 		// test file
@@ -159,6 +202,9 @@ public class BndHelper {
 				}
 
 				wrapper.getJar().setManifest(m);
+				if (reproducible) {
+					wrapper.getJar().setReproducible(true);
+				}
 				wrapper.save(outputFile, true);
 				if (!wrapper.isOk() || !outputFile.exists()) {
 					throw new IllegalStateException("Failed creating a wrapped bundle");
@@ -174,6 +220,107 @@ public class BndHelper {
 		return true;
 	}
 
+	/**
+	 * Determines if a Jar has any entries, in the same way as
+	 * {@link #injectManifest(File, File, Map, boolean, boolean)} does.
+	 *
+	 * @param source
+	 *            the Jar file
+	 * @return if the Jar has entries, <code>false</code> if it is empty or
+	 *         invalid
+	 * @throws IOException
+	 *             if reading the Jar fails
+	 */
+	public static boolean hasEntries(File source) throws IOException {
+		try (ZipFile zip = new ZipFile(source)) {
+			return zip.entries().hasMoreElements();
+		} catch (ZipException e) {
+			// corrupt Zip file
+			return false;
+		}
+	}
+
+	/**
+	 * Copy a Jar and replace its manifest, without analyzing its content. Any
+	 * existing manifest headers are dropped.
+	 *
+	 * @param source
+	 *            the source jar
+	 * @param target
+	 *            the target file
+	 * @param headers
+	 *            the main manifest headers
+	 * @param removeSignature
+	 *            if signature files should be removed
+	 * @param reproducible
+	 *            if entries and headers should be sorted and written with fixed
+	 *            timestamps
+	 * @return if the target file was created, it will not be created if the source
+	 *         Jar is empty or invalid
+	 * @throws IOException
+	 *             if copying the Jar fails
+	 */
+	public static boolean injectManifest(File source, File target, Map<String, String> headers,
+		boolean removeSignature, boolean reproducible) throws IOException {
+		try (ZipFile zip = new ZipFile(source)) {
+			if (!zip.entries().hasMoreElements()) {
+				// empty Zip file
+				return false;
+			}
+
+			Manifest manifest = new Manifest();
+			Attributes main = manifest.getMainAttributes();
+			main.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+			main.putValue(Constants.BUNDLE_MANIFESTVERSION, "2");
+			Map<String, String> sortedHeaders = reproducible ? new TreeMap<String, String>(headers) : headers;
+			for (Map.Entry<String, String> header : sortedHeaders.entrySet()) {
+				if (header.getValue() != null) {
+					main.putValue(header.getKey(), header.getValue());
+				}
+			}
+
+			List<? extends ZipEntry> entries = Collections.list(zip.entries());
+			if (reproducible) {
+				entries.sort(Comparator.comparing(ZipEntry::getName));
+			}
+
+			target.delete();
+			Set<String> written = new HashSet<String>();
+			written.add(JarFile.MANIFEST_NAME);
+			try (JarOutputStream out = new JarOutputStream(new FileOutputStream(target))) {
+				ZipEntry manifestEntry = new ZipEntry(JarFile.MANIFEST_NAME);
+				manifestEntry.setTime(reproducible ? REPRODUCIBLE_ENTRY_TIME : System.currentTimeMillis());
+				out.putNextEntry(manifestEntry);
+				manifest.write(out);
+				out.closeEntry();
+
+				for (ZipEntry entry : entries) {
+					String name = entry.getName();
+					if (JarFile.MANIFEST_NAME.equalsIgnoreCase(name) || !written.add(name)
+						|| (removeSignature && isSignatureFile(name))) {
+						continue;
+					}
+
+					ZipEntry copy = new ZipEntry(name);
+					copy.setTime(reproducible ? REPRODUCIBLE_ENTRY_TIME : entry.getTime());
+					out.putNextEntry(copy);
+					if (!entry.isDirectory()) {
+						try (InputStream in = zip.getInputStream(entry)) {
+							in.transferTo(out);
+						}
+					}
+					out.closeEntry();
+				}
+			}
+		} catch (ZipException e) {
+			// empty or corrupt Zip file
+			target.delete();
+			return false;
+		}
+
+		return true;
+	}
+
 	/**
 	 * Creates a {@link Pair} with the {@value Constants#BUNDLE_SYMBOLICNAME} as
 	 * first value and a list of imported packages as second value of the given
@@ -215,13 +362,18 @@ public class BndHelper {
 		}
 	}
 
+	private static boolean isSignatureFile(String name) {
+		String upper = name.toUpperCase();
+		return upper.startsWith("META-INF/")
+			&& (upper.endsWith(".SF") || upper.endsWith(".RSA") || upper.endsWith(".DSA"));
+	}
+
 	private static void doRemoveSignature(Jar jar) {
 		Map<String, Resource> metaInf = jar.getDirectories().get("META-INF");
 		Set<String> toRemove = new HashSet<String>();
 		if (metaInf != null) {
 			for (String resource : metaInf.keySet()) {
-				String upper = resource.toUpperCase();
-				if (upper.endsWith(".SF") || upper.endsWith(".RSA") || upper.endsWith(".DSA")) {
+				if (isSignatureFile(resource)) {
 					toRemove.add(resource);
 				}
 			}
@@ -17,10 +17,12 @@ package org.standardout.gradle.plugin.platform.internal.util.bnd
 
 import java.nio.file.Files
 import java.nio.file.StandardCopyOption
+import java.util.jar.JarOutputStream
 
 import org.gradle.api.Project
 import org.gradle.api.artifacts.ResolvedArtifact
 import org.gradle.api.artifacts.ResolvedDependency
+import org.gradle.api.logging.Logger
 import org.osgi.framework.Version
 import org.standardout.gradle.plugin.platform.internal.BundleArtifact
 import org.standardout.gradle.plugin.platform.internal.DependencyArtifact
@@ -31,6 +33,8 @@ import org.standardout.gradle.plugin.platform.internal.config.BndConfig
 import org.standardout.gradle.plugin.platform.internal.config.MergeConfig
 import org.standardout.gradle.plugin.platform.internal.config.StoredConfig
 import org.standardout.gradle.plugin.platform.internal.config.StoredConfigImpl
+import org.standardout.gradle.plugin.platform.internal.model.BundleSpec
+import org.standardout.gradle.plugin.platform.internal.model.PlatformModel
 
 import aQute.bnd.header.Attrs
 import aQute.bnd.header.OSGiHeader
@@ -45,45 +49,44 @@ class BundleHelper {
 	public static final MANIFEST_PATH = 'META-INF/MANIFEST.MF'
 
 	/**
-	 * Bundle an artifact, also create the source bundle if applicable.
+	 * Determine the bundle to create for an artifact, also the source bundle if applicable.
+	 *
+	 * @return the bundle specifications, empty for source artifacts
 	 */
-	static void bundle(Project project, BundleArtifact art, File targetDir, List<BundleArtifact> mergedArtifacts = null) {
+	static List<BundleSpec> bundleSpecs(Project project, BundleArtifact art) {
 		if (art.source) {
 			// ignore - source bundles must be handled together with their parents
-			return
+			return []
 		}
 
-		boolean removeSignatures = project.platform.removeSignaturesFromWrappedBundles
-
-		if(art.sourceBundle != null) {
-			// wrap sources as bundle
-			BundleArtifact sourceArt = art.sourceBundle
-			def sourceJar = new File(targetDir, sourceArt.targetFileName)
-
-			project.logger.info "-> Creating source bundle for ${sourceArt.id}..."
+		List<BundleSpec> specs = [bundleSpec(project, art, [art])]
 
-			// calculated properties
-			def sourceBundleDef = "${art.symbolicName};version=\"${art.modifiedVersion}\";roots:=\".\"" as String
-
-			boolean written = BndHelper.wrap(sourceArt.file, null, sourceJar, [
-				(Analyzer.BUNDLE_NAME): sourceArt.bundleName,
-				(Analyzer.BUNDLE_VERSION): sourceArt.modifiedVersion,
-				(Analyzer.BUNDLE_SYMBOLICNAME): sourceArt.symbolicName,
-				(Analyzer.REMOVEHEADERS): '*-Package',	// no 'Export-Package', 'Import-Package', 'Private-Package' for source bundle
-				'Eclipse-SourceBundle': sourceBundleDef
-			], removeSignatures)
-			if (!written) {
-				project.logger.warn "Skipping creating source bundle for empty or corrupted JAR: $sourceArt.file"
+		if (art.sourceBundle != null) {
+			if (BndHelper.hasEntries(art.sourceBundle.file)) {
+				BundleSpec source = sourceBundleSpec(art)
+				source.deferred = project.platform.deferSourceBundles
+				specs << source
+			}
+			else {
+				project.logger.warn "Skipping creating source bundle for empty or corrupted JAR: $art.sourceBundle.file"
 				// remove from artifact map (so it is not included in the update site feature)
-				project.platform.artifacts.remove(sourceArt.id)
+				project.platform.artifacts.remove(art.sourceBundle.id)
 			}
 		}
 
-		def outputFile = new File(targetDir, art.targetFileName)
+		specs
+	}
+
+	private static BundleSpec bundleSpec(Project project, BundleArtifact art, List<BundleArtifact> representedArtifacts) {
+		BundleSpec spec = new BundleSpec(
+			id: art.id,
+			symbolicName: art.symbolicName,
+			version: art.modifiedVersion,
+			targetFileName: art.targetFileName,
+			files: [art.file])
+
 		if (art.wrap) {
 			// normal jar
-			project.logger.info "-> Wrapping jar ${art.id} as OSGi bundle using bnd..."
-
 			Map<String, String> properties = [:]
 
 			// bnd config
@@ -113,21 +116,107 @@ class BundleHelper {
 				)
 
 			// add BndPlatform specific manifest headers
-			if (mergedArtifacts) {
-				addBndPlatformHeaders(project, properties, mergedArtifacts)
+			addBndPlatformHeaders(project, properties, representedArtifacts)
+
+			spec.action = BundleSpec.Action.WRAP
+			spec.properties = properties
+		}
+		else {
+			spec.action = BundleSpec.Action.COPY
+			spec.noWrapReason = art.noWrapReason
+		}
+
+		spec
+	}
+
+	/**
+	 * Determine the source bundle for an artifact with an associated source bundle.
+	 * Only the manifest of the source Jar is replaced, the content is not analyzed.
+	 */
+	private static BundleSpec sourceBundleSpec(BundleArtifact art) {
+		BundleArtifact sourceArt = art.sourceBundle
+
+		// calculated properties
+		def sourceBundleDef = "${art.symbolicName};version=\"${art.modifiedVersion}\";roots:=\".\"" as String
+
+		new BundleSpec(
+			id: sourceArt.id,
+			symbolicName: sourceArt.symbolicName,
+			version: sourceArt.modifiedVersion,
+			targetFileName: sourceArt.targetFileName,
+			action: BundleSpec.Action.SOURCE,
+			files: [sourceArt.file],
+			properties: [
+				(Analyzer.BUNDLE_NAME): sourceArt.bundleName,
+				(Analyzer.BUNDLE_VERSION): sourceArt.modifiedVersion,
+				(Analyzer.BUNDLE_SYMBOLICNAME): sourceArt.symbolicName,
+				'Eclipse-SourceBundle': sourceBundleDef
+			])
+	}
+
+	/**
+	 * Create a bundle as determined in the platform model.
+	 *
+	 * @param model the platform model providing the settings
+	 * @param spec the bundle to create
+	 * @param targetDir the directory to write the bundle to
+	 * @param logger the logger
+	 */
+	static void createBundle(PlatformModel model, BundleSpec spec, File targetDir, Logger logger) {
+		File outputFile = new File(targetDir, spec.targetFileName)
+
+		File tmpJar = null
+		try {
+			File file
+			if (spec.files.size() > 1) {
+				// merge jars
+				tmpJar = File.createTempFile('merge', '.jar')
+				mergeJars(spec.files, tmpJar, spec.mergeProperties, model.reproducibleOutput)
+				file = tmpJar
 			}
 			else {
-				addBndPlatformHeaders(project, properties, [art])
+				file = spec.files[0]
 			}
 
-			boolean written = BndHelper.wrap(art.file, null, outputFile, properties, removeSignatures)
-			if (!written) {
-				throw new IllegalStateException("Empty or corrupted JAR cannot be wrapped: $art.file")
+			if (spec.action == BundleSpec.Action.WRAP) {
+				logger.info "-> Wrapping jar ${spec.id} as OSGi bundle using bnd..."
+				boolean written = wrap(model, file, outputFile, spec.properties)
+				if (!written) {
+					throw new IllegalStateException("Empty or corrupted JAR cannot be wrapped: ${spec.files.join(', ')}")
+				}
+			}
+			else if (spec.action == BundleSpec.Action.SOURCE) {
+				logger.info "-> Creating source bundle for ${spec.id}..."
+				boolean written = BndHelper.injectManifest(file, outputFile, spec.properties,
+					model.removeSignatures, model.reproducibleOutput)
+				if (!written) {
+					logger.warn "Skipping creating source bundle for empty or corrupted JAR: ${spec.files.join(', ')}"
+				}
+			}
+			else {
+				logger.info "-> Copying artifact ${spec.id}; ${spec.noWrapReason}..."
+				Files.copy(file.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING)
 			}
 		}
-		else {
-			project.logger.info "-> Copying artifact $art.id; ${art.noWrapReason}..."
-			project.ant.copy ( file : art.file , tofile : outputFile )
+		finally {
+			tmpJar?.delete()
+		}
+	}
+
+	/**
+	 * Wrap a Jar using bnd, using the shared bundle store if enabled.
+	 */
+	private static boolean wrap(PlatformModel model, File source, File target, Map<String, String> properties) {
+		boolean removeSignatures = model.removeSignatures
+		boolean reproducible = model.reproducibleOutput
+		if (!model.useBundleStore) {
+			return BndHelper.wrap(source, null, target, properties, removeSignatures, reproducible)
+		}
+
+		BundleStore store = new BundleStore(model.bundleStoreDir, model.bundleStoreMaxSize)
+		String key = BundleStore.key(source, properties, removeSignatures, reproducible)
+		store.retrieveOrCreate(key, target) { File file ->
+			BndHelper.wrap(source, null, file, properties, removeSignatures, reproducible)
 		}
 	}
 
@@ -158,9 +247,10 @@ class BundleHelper {
 				}
 
 				if (resolvedArtifacts) {
-					// sort by symbolic name to have a reproducable order
-					resolvedArtifacts = resolvedArtifacts.sort(false) {
-						it.symbolicName
+					// sort by coordinates to have a reproducable order
+					// (the symbolic name would require determining the metadata of the merged artifacts)
+					resolvedArtifacts = resolvedArtifacts.sort(false) { ResolvedBundleArtifact a, ResolvedBundleArtifact b ->
+						a.group <=> b.group ?: a.name <=> b.name ?: a.version <=> b.version ?: a.classifier <=> b.classifier
 					}
 
 					headers.put('BndPlatform-MergedArtifacts', resolvedArtifacts.size())
@@ -179,14 +269,25 @@ class BundleHelper {
 		}
 	}
 
-	static void merge(Project project, MergeConfig merge, List<BundleArtifact> bundles, File targetDir) {
+	/**
+	 * Determine the merged bundle for the given bundles, also the merged source bundle
+	 * if any of the bundles has sources. The merged artifacts are replaced by the
+	 * artifacts representing the merged bundles in the platform artifacts.
+	 *
+	 * The Jars are not merged here. As the merged Jar has no manifest, an empty Jar
+	 * is used in its place to determine the merged bundle, unless there is only a
+	 * single Jar.
+	 *
+	 * @return the bundle specifications, the first is the merged bundle
+	 */
+	static List<BundleSpec> mergeSpecs(Project project, MergeConfig merge, List<BundleArtifact> bundles) {
 		if (bundles.empty) {
-			return
+			return []
 		}
 
 		// collect jars and source jars
-		def jars = []
-		def sourceJars = []
+		List<File> jars = []
+		List<File> sourceJars = []
 		bundles.each { BundleArtifact bundle ->
 			jars << bundle.file
 			project.platform.artifacts.remove(bundle.id)
@@ -198,66 +299,97 @@ class BundleHelper {
 
 		project.logger.warn 'Merging jars ' + jars.collect{ it.name }.join(',') + ' - the jars will not be available as separate bundles'
 
-		// merge jars
-		File tmpJar = File.createTempFile('merge', '.jar')
-		File sourceJar = File.createTempFile('merge', '-sources.jar')
+		File emptyJar = File.createTempFile('merge', '.jar')
 		try {
-			mergeJars(project, jars, tmpJar, merge.properties)
-
-			// make sure to include default configuration for merged Jar
-			StoredConfig config = new StoredConfigImpl()
-			config << project.platform.configurations.defaultConfig // default config
-
-			// collect dependencies for artifact
-			Set<ResolvedArtifact> directDeps = new HashSet<ResolvedArtifact>()
-			Set<ResolvedDependency> representedDeps = new HashSet<ResolvedDependency>()
-			// collect merged artifact dependencies
-			bundles.each {
-				if (it instanceof DependencyArtifact) {
-					directDeps.addAll(it.getDirectDependencies(project))
-					representedDeps.addAll(it.representedDependencies.toList())
-				}
-			}
+			new JarOutputStream(new FileOutputStream(emptyJar)).close()
 
-			// import defaults config
-			if (project.platform.determineImportVersions) {
-				// configuration
-				config << project.platform.configurations.defaultImports(directDeps)
-			}
+			FileBundleArtifact artifact = createMergeArtifact(project, merge, bundles,
+				jars.size() == 1 ? jars[0] : emptyJar)
 
-			config << merge.bundleConfig // merge config
-			config << project.platform.configurations.overrideConfig // override config
-			// enable adding qualifier by default (must be enabled as default for file bundle artifacts is false)
-			config << new StoredConfigImpl({ if (addQualifier == null) addQualifier = true })
+			BundleSpec spec = bundleSpec(project, artifact, bundles)
+			spec.files = jars
+			spec.mergeProperties = [
+				failOnDuplicate: merge.properties.failOnDuplicate as boolean,
+				collectServices: merge.properties.collectServices as boolean
+			]
+			spec.mergedIds = bundles*.id
 
-			FileBundleArtifact artifact = new MergeBundleArtifact(tmpJar, project, config, merge.id,
-				directDeps, representedDeps)
+			List<BundleSpec> specs = [spec]
 
-			// merge sources & associate to bundle artifact
+			// merged sources associated to bundle artifact
 			if (sourceJars) {
-				mergeJars(project, sourceJars, sourceJar, [
-					failOnDuplicate: false,
-					collectServices: true
-				])
-				FileBundleArtifact sourceArtifact = new FileBundleArtifact(artifact, sourceJar)
-
-				// register artifact so it is included in the platform feature
-				project.platform.artifacts[sourceArtifact.id] = sourceArtifact
+				if (sourceJars.any { BndHelper.hasEntries(it) }) {
+					FileBundleArtifact sourceArtifact = new FileBundleArtifact(artifact, emptyJar)
+
+					// merged source Jars are created by the bundles task, so their source bundles are not deferred
+					BundleSpec sourceSpec = sourceBundleSpec(artifact)
+					sourceSpec.files = sourceJars
+					sourceSpec.mergeProperties = [
+						failOnDuplicate: false,
+						collectServices: true
+					]
+					specs << sourceSpec
+
+					// register artifact so it is included in the platform feature
+					project.platform.artifacts[sourceArtifact.id] = sourceArtifact
+				}
+				else {
+					project.logger.warn "Skipping creating source bundle for empty or corrupted JARs: ${sourceJars.join(', ')}"
+				}
 			}
 
-			// create bundle (and source bundle)
-			bundle(project, artifact, targetDir, bundles)
-
 			// register artifact so it is included in the platform feature
 			project.platform.artifacts[artifact.id] = artifact
+
+			specs
 		}
 		finally {
-			tmpJar.delete()
-			sourceJar.delete()
+			emptyJar.delete()
 		}
 	}
 
-	static void mergeJars(Project project, List<File> jarFiles, File targetFile, Map<String, Object> properties) {
+	/**
+	 * Create the artifact representing a merged bundle.
+	 *
+	 * @param project the project
+	 * @param merge the merge configuration
+	 * @param bundles the merged bundles
+	 * @param jar the merged Jar
+	 * @return the merged bundle artifact
+	 */
+	private static FileBundleArtifact createMergeArtifact(Project project, MergeConfig merge,
+		List<BundleArtifact> bundles, File jar) {
+		// make sure to include default configuration for merged Jar
+		StoredConfig config = new StoredConfigImpl()
+		config << project.platform.configurations.defaultConfig // default config
+
+		// collect dependencies for artifact
+		Set<ResolvedArtifact> directDeps = new HashSet<ResolvedArtifact>()
+		Set<ResolvedDependency> representedDeps = new HashSet<ResolvedDependency>()
+		// collect merged artifact dependencies
+		bundles.each {
+			if (it instanceof DependencyArtifact) {
+				directDeps.addAll(it.getDirectDependencies(project))
+				representedDeps.addAll(it.representedDependencies.toList())
+			}
+		}
+
+		// import defaults config
+		if (project.platform.determineImportVersions) {
+			// configuration
+			config << project.platform.configurations.defaultImports(directDeps)
+		}
+
+		config << merge.bundleConfig // merge config
+		config << project.platform.configurations.overrideConfig // override config
+		// enable adding qualifier by default (must be enabled as default for file bundle artifacts is false)
+		config << new StoredConfigImpl({ if (addQualifier == null) addQualifier = true })
+
+		new MergeBundleArtifact(jar, project, config, merge.id, directDeps, representedDeps)
+	}
+
+	static void mergeJars(List<File> jarFiles, File targetFile, Map<String, Object> properties,
+		boolean reproducible = false) {
 		assert !jarFiles.empty : 'Cannot merge no jars'
 
 		if (jarFiles.size() == 1) {
@@ -281,6 +413,10 @@ class BundleHelper {
 			jar.remove(MANIFEST_PATH)
 		}
 
+		if (reproducible) {
+			jar.setReproducible(true)
+		}
+
 		jar.write(targetFile)
 	}
 
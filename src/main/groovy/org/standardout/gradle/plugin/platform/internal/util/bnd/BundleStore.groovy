@@ -0,0 +1,226 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.internal.util.bnd
+
+import groovy.io.FileType
+
+import java.nio.channels.FileChannel
+import java.nio.channels.FileLock
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.nio.file.StandardOpenOption
+import java.security.MessageDigest
+import java.util.concurrent.ConcurrentHashMap
+
+import aQute.bnd.osgi.About
+
+/**
+ * Store for wrapped bundles that may be shared between projects and builds.
+ * Bundles are identified by a digest of the input Jar and the effective bnd
+ * properties. Access to the store is synchronized between processes using a
+ * file lock. The size of the stored bundles is tracked in an index file, if
+ * the store exceeds its maximum size, the least recently used bundles are
+ * removed until it is below {@link #EVICT_RATIO} of the maximum size.
+ */
+class BundleStore {
+
+	private static final String LOCK_FILE = '.lock'
+
+	private static final String SIZE_FILE = '.size'
+
+	/**
+	 * Ratio of the maximum size the store is reduced to when evicting bundles,
+	 * so the store does not have to be scanned each time a bundle is added.
+	 */
+	static final double EVICT_RATIO = 0.9
+
+	/**
+	 * Locks for store directories within this JVM, as file locks are held per process.
+	 */
+	private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>()
+
+	private final File dir
+
+	private final long maxSize
+
+	/**
+	 * Create a bundle store.
+	 *
+	 * @param dir the store directory
+	 * @param maxSize the maximum size of the stored bundles in bytes
+	 */
+	BundleStore(File dir, long maxSize) {
+		this.dir = dir
+		this.maxSize = maxSize
+	}
+
+	/**
+	 * Determine the key for a bundle wrapped from the given source with the given properties.
+	 *
+	 * @param source the source Jar
+	 * @param properties the bnd properties
+	 * @param removeSignatures if signatures are removed from the Jar
+	 * @param reproducible if the bundle is created as reproducible output
+	 * @return the key
+	 */
+	static String key(File source, Map<String, String> properties, boolean removeSignatures,
+		boolean reproducible = false) {
+		MessageDigest digest = MessageDigest.getInstance('SHA-256')
+		source.withInputStream { InputStream input ->
+			byte[] buffer = new byte[8192]
+			int read
+			while ((read = input.read(buffer)) > 0) {
+				digest.update(buffer, 0, read)
+			}
+		}
+
+		def config = new TreeMap<String, String>()
+		properties.each { key, value ->
+			config[key as String] = value as String
+		}
+		config['bnd-platform.removeSignatures'] = removeSignatures as String
+		config['bnd-platform.reproducible'] = reproducible as String
+		config['bnd-platform.bndlib'] = About.CURRENT.toString()
+		digest.update(config.toMapString().getBytes('UTF-8'))
+
+		digest.digest().encodeHex().toString()
+	}
+
+	/**
+	 * Retrieve the bundle with the given key from the store or create it and
+	 * publish it to the store.
+	 *
+	 * @param key the bundle key
+	 * @param target the target file to write the bundle to
+	 * @param create closure that is called with a file to create the bundle in,
+	 *   returns if the file was written
+	 * @return if the target file was written
+	 */
+	boolean retrieveOrCreate(String key, File target, Closure<Boolean> create) {
+		File entry = new File(new File(dir, key[0..1]), key + '.jar')
+
+		boolean found = withLock {
+			if (entry.exists()) {
+				Files.copy(entry.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING)
+				// mark as recently used
+				entry.setLastModified(System.currentTimeMillis())
+				true
+			}
+			else {
+				false
+			}
+		}
+		if (found) {
+			return true
+		}
+
+		// create the bundle outside of the lock
+		boolean written = create(target)
+		if (written) {
+			withLock {
+				if (!entry.exists()) {
+					long size = readSize()
+
+					entry.parentFile.mkdirs()
+					File tmp = new File(entry.parentFile, entry.name + '.part')
+					Files.copy(target.toPath(), tmp.toPath(), StandardCopyOption.REPLACE_EXISTING)
+					Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE)
+
+					size += entry.length()
+					if (size > maxSize) {
+						size = evict()
+					}
+					writeSize(size)
+				}
+			}
+		}
+
+		written
+	}
+
+	/**
+	 * Remove the least recently used bundles until the store is reduced to
+	 * {@link #EVICT_RATIO} of the maximum size. Must be called while holding the lock.
+	 *
+	 * @return the size of the remaining bundles
+	 */
+	private long evict() {
+		List<File> entries = storedBundles()
+		long size = entries.sum(0L) { File file -> file.length() }
+		long targetSize = (long) (maxSize * EVICT_RATIO)
+
+		for (File file : entries.sort { it.lastModified() }) {
+			if (size <= targetSize) {
+				break
+			}
+			long length = file.length()
+			if (file.delete()) {
+				size -= length
+			}
+		}
+
+		size
+	}
+
+	/**
+	 * Read the size of the stored bundles from the index file, or determine
+	 * it if it was not recorded yet. Must be called while holding the lock.
+	 */
+	private long readSize() {
+		File sizeFile = new File(dir, SIZE_FILE)
+		if (sizeFile.exists()) {
+			String recorded = sizeFile.text.trim()
+			if (recorded.isLong()) {
+				return recorded.toLong()
+			}
+		}
+
+		storedBundles().sum(0L) { File file -> file.length() } as long
+	}
+
+	private void writeSize(long size) {
+		new File(dir, SIZE_FILE).text = size as String
+	}
+
+	private List<File> storedBundles() {
+		List<File> entries = []
+		dir.eachFileRecurse(FileType.FILES) { File file ->
+			if (file.name.endsWith('.jar')) {
+				entries << file
+			}
+		}
+		entries
+	}
+
+	private <T> T withLock(Closure<T> action) {
+		dir.mkdirs()
+		File lockFile = new File(dir, LOCK_FILE)
+		Object jvmLock = LOCKS.computeIfAbsent(lockFile.canonicalPath) { new Object() }
+		synchronized (jvmLock) {
+			FileChannel channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)
+			try {
+				FileLock lock = channel.lock()
+				try {
+					return action()
+				} finally {
+					lock.release()
+				}
+			} finally {
+				channel.close()
+			}
+		}
+	}
+}
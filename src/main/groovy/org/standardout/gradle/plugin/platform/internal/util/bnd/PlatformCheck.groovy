@@ -0,0 +1,369 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.internal.util.bnd
+
+import java.util.concurrent.ConcurrentSkipListMap
+import java.util.jar.JarFile
+import java.util.jar.Manifest
+import java.util.stream.Collectors
+
+import org.osgi.framework.Constants
+import org.osgi.framework.Version
+import org.osgi.framework.VersionRange
+
+import aQute.bnd.header.Attrs
+import aQute.bnd.header.OSGiHeader
+import aQute.bnd.header.Parameters
+import aQute.bnd.osgi.Processor
+
+/**
+ * Checks if the requirements of a set of bundles can be satisfied by the
+ * bundles themselves, based only on their manifests. Builds an in-memory
+ * index of all exported packages and bundle symbolic names and resolves
+ * each <code>Import-Package</code> and <code>Require-Bundle</code> entry
+ * against it. No OSGi framework is launched, so this is an approximation
+ * (e.g. uses constraints are not considered).
+ */
+class PlatformCheck {
+
+	/**
+	 * Packages provided by the JRE and the OSGi framework, sub-packages are included.
+	 */
+	public static final List<String> DEFAULT_SYSTEM_PACKAGES = [
+		// JRE
+		'java',
+		'javax.accessibility',
+		'javax.annotation.processing',
+		'javax.crypto',
+		'javax.imageio',
+		'javax.lang.model',
+		'javax.management',
+		'javax.naming',
+		'javax.net',
+		'javax.print',
+		'javax.rmi',
+		'javax.script',
+		'javax.security',
+		'javax.smartcardio',
+		'javax.sound',
+		'javax.sql',
+		'javax.swing',
+		'javax.tools',
+		'javax.transaction.xa',
+		'javax.xml',
+		'org.ietf.jgss',
+		'org.w3c.dom',
+		'org.xml.sax',
+		'sun',
+		'com.sun',
+		'jdk',
+		// OSGi framework
+		'org.osgi.framework',
+		'org.osgi.resource',
+		'org.osgi.util.tracker',
+		'org.osgi.service.condpermadmin',
+		'org.osgi.service.packageadmin',
+		'org.osgi.service.permissionadmin',
+		'org.osgi.service.startlevel',
+		'org.osgi.service.url'
+	].asImmutable()
+
+	/**
+	 * Symbolic names of the system bundle, i.e. the OSGi framework.
+	 */
+	public static final List<String> DEFAULT_SYSTEM_BUNDLES = [
+		'system.bundle',
+		'org.eclipse.osgi'
+	].asImmutable()
+
+	/**
+	 * Manifest information relevant for resolution of a single bundle.
+	 */
+	static class BundleInfo {
+		File file
+		String symbolicName
+		Version version
+		Parameters exports
+		Parameters imports
+		Parameters requiredBundles
+	}
+
+	/**
+	 * A package export.
+	 */
+	static class Export {
+		BundleInfo bundle
+		Version version
+	}
+
+	/**
+	 * A requirement that could not be satisfied.
+	 */
+	static class Problem {
+		String bundle
+		String type
+		String requirement
+		String range
+		/**
+		 * Versions that are available, but not in range (if any).
+		 */
+		List<String> available = []
+
+		@Override
+		String toString() {
+			def desc = "$type $requirement"
+			if (range) {
+				desc += " $range"
+			}
+			if (available) {
+				desc += " (available: ${available.join(', ')})"
+			}
+			desc
+		}
+	}
+
+	/**
+	 * Packages that are exported by bundles with different symbolic names.
+	 */
+	final Map<String, List<String>> splitPackages = new TreeMap<>()
+
+	/**
+	 * Unresolved mandatory requirements.
+	 */
+	final List<Problem> unresolved = []
+
+	/**
+	 * Mandatory requirements where the requirement is present, but not
+	 * in the requested version range.
+	 */
+	final List<Problem> versionMismatches = []
+
+	/**
+	 * Files that could not be read as Jar, mapped to the error message.
+	 */
+	final Map<String, String> unreadableFiles = new ConcurrentSkipListMap<>()
+
+	/**
+	 * Number of bundles checked.
+	 */
+	int bundleCount
+
+	private final Set<String> ignorePackages
+
+	private final Set<String> systemBundles
+
+	/**
+	 * Create a platform check.
+	 *
+	 * @param ignorePackages packages to assume as provided by the runtime
+	 *   environment, a package also matches if it is a sub-package
+	 * @param systemBundles symbolic names of bundles to assume as provided by
+	 *   the runtime environment if they are not part of the checked bundles
+	 */
+	PlatformCheck(Collection<String> ignorePackages = [], Collection<String> systemBundles = DEFAULT_SYSTEM_BUNDLES) {
+		this.ignorePackages = new HashSet<String>(ignorePackages)
+		this.systemBundles = new HashSet<String>(systemBundles)
+	}
+
+	/**
+	 * Check the given bundle files.
+	 *
+	 * @param bundleFiles the bundle Jars
+	 * @return this check
+	 */
+	PlatformCheck check(Collection<File> bundleFiles) {
+		// read manifests in parallel
+		List<BundleInfo> bundles = bundleFiles.parallelStream()
+			.map { File file ->
+				try {
+					readBundle(file)
+				} catch (IOException e) {
+					unreadableFiles[file.name] = e.message ?: e.class.simpleName
+					null
+				}
+			}
+			.filter { BundleInfo info -> info != null }
+			.collect(Collectors.toList())
+		bundleCount = bundles.size()
+
+		// index exports and symbolic names
+		Map<String, List<Export>> exports = [:]
+		Map<String, List<BundleInfo>> symbolicNames = [:]
+		bundles.each { BundleInfo bundle ->
+			symbolicNames.get(bundle.symbolicName, []) << bundle
+			bundle.exports.each { String key, Attrs attrs ->
+				String pkg = Processor.removeDuplicateMarker(key)
+				exports.get(pkg, []) << new Export(bundle: bundle, version: exportVersion(attrs))
+			}
+		}
+
+		exports.each { String pkg, List<Export> pkgExports ->
+			def names = pkgExports.collect { it.bundle.symbolicName }.unique().sort()
+			if (names.size() > 1) {
+				splitPackages[pkg] = names
+			}
+		}
+
+		// resolve requirements
+		bundles.sort(false) { it.symbolicName }.each { BundleInfo bundle ->
+			bundle.imports.each { String key, Attrs attrs ->
+				String pkg = Processor.removeDuplicateMarker(key)
+				if (isOptional(attrs) || isIgnored(pkg)) {
+					return
+				}
+				VersionRange range = parseRange(attrs.get(Constants.VERSION_ATTRIBUTE))
+				List<Export> candidates = exports[pkg]
+				if (!candidates) {
+					unresolved << new Problem(bundle: bundleId(bundle), type: 'Import-Package',
+						requirement: pkg, range: attrs.get(Constants.VERSION_ATTRIBUTE))
+				}
+				else if (!candidates.any { range.includes(it.version) }) {
+					versionMismatches << new Problem(bundle: bundleId(bundle), type: 'Import-Package',
+						requirement: pkg, range: range.toString(),
+						available: candidates.collect { "${it.version} (${it.bundle.symbolicName})" as String })
+				}
+			}
+
+			bundle.requiredBundles.each { String key, Attrs attrs ->
+				String name = Processor.removeDuplicateMarker(key)
+				if (isOptional(attrs)) {
+					return
+				}
+				VersionRange range = parseRange(attrs.get(Constants.BUNDLE_VERSION_ATTRIBUTE))
+				List<BundleInfo> candidates = symbolicNames[name]
+				if (!candidates) {
+					if (systemBundles.contains(name)) {
+						// provided by the framework
+						return
+					}
+					unresolved << new Problem(bundle: bundleId(bundle), type: 'Require-Bundle',
+						requirement: name, range: attrs.get(Constants.BUNDLE_VERSION_ATTRIBUTE))
+				}
+				else if (!candidates.any { range.includes(it.version) }) {
+					versionMismatches << new Problem(bundle: bundleId(bundle), type: 'Require-Bundle',
+						requirement: name, range: range.toString(),
+						available: candidates.collect { it.version.toString() })
+				}
+			}
+		}
+
+		this
+	}
+
+	/**
+	 * @return if all files could be read and all mandatory requirements could be resolved
+	 */
+	boolean isOk() {
+		unreadableFiles.isEmpty() && unresolved.empty && versionMismatches.empty
+	}
+
+	/**
+	 * Write a report of the check results.
+	 *
+	 * @param target the writer to write the report to
+	 */
+	void writeReport(Writer target) {
+		target << "Checked $bundleCount bundles\n"
+
+		if (unreadableFiles) {
+			target << "\nUnreadable files (${unreadableFiles.size()})\n\n"
+			unreadableFiles.each { String name, String message ->
+				target << "  $name: $message\n"
+			}
+		}
+
+		target << "\nUnresolved requirements (${unresolved.size()})\n\n"
+		unresolved.groupBy { it.bundle }.each { String bundle, List<Problem> problems ->
+			target << "# $bundle\n"
+			problems.each { target << "  $it\n" }
+		}
+
+		target << "\nVersion range mismatches (${versionMismatches.size()})\n\n"
+		versionMismatches.groupBy { it.bundle }.each { String bundle, List<Problem> problems ->
+			target << "# $bundle\n"
+			problems.each { target << "  $it\n" }
+		}
+
+		target << "\nSplit packages (${splitPackages.size()})\n\n"
+		splitPackages.each { String pkg, List<String> names ->
+			target << "  $pkg: ${names.join(', ')}\n"
+		}
+	}
+
+	private boolean isIgnored(String pkg) {
+		ignorePackages.any { pkg == it || pkg.startsWith(it + '.') }
+	}
+
+	private static boolean isOptional(Attrs attrs) {
+		attrs.get(Constants.RESOLUTION_DIRECTIVE + ':') == Constants.RESOLUTION_OPTIONAL
+	}
+
+	private static String bundleId(BundleInfo bundle) {
+		"${bundle.symbolicName}_${bundle.version}"
+	}
+
+	private static Version exportVersion(Attrs attrs) {
+		String version = attrs.get(Constants.VERSION_ATTRIBUTE) ?: attrs.get(Constants.PACKAGE_SPECIFICATION_VERSION)
+		try {
+			version ? Version.parseVersion(version) : Version.emptyVersion
+		} catch (IllegalArgumentException e) {
+			Version.emptyVersion
+		}
+	}
+
+	private static VersionRange parseRange(String range) {
+		try {
+			range ? new VersionRange(range) : new VersionRange(Version.emptyVersion.toString())
+		} catch (IllegalArgumentException e) {
+			new VersionRange(Version.emptyVersion.toString())
+		}
+	}
+
+	/**
+	 * Read the relevant manifest information of a bundle.
+	 *
+	 * @param file the bundle file
+	 * @return the bundle information or <code>null</code> if the file is no bundle
+	 * @throws IOException if the file cannot be read as Jar
+	 */
+	static BundleInfo readBundle(File file) {
+		Manifest manifest = new JarFile(file).withCloseable { JarFile jar -> jar.manifest }
+		if (manifest == null) {
+			return null
+		}
+		def main = manifest.mainAttributes
+		String symbolicName = JarInfo.extractSymbolicName(main.getValue(Constants.BUNDLE_SYMBOLICNAME))
+		if (!symbolicName || main.getValue('Eclipse-SourceBundle')) {
+			// not a bundle or a source bundle
+			return null
+		}
+
+		Version version
+		try {
+			version = Version.parseVersion(main.getValue(Constants.BUNDLE_VERSION))
+		} catch (IllegalArgumentException e) {
+			version = Version.emptyVersion
+		}
+
+		new BundleInfo(
+			file: file,
+			symbolicName: symbolicName.trim(),
+			version: version,
+			exports: OSGiHeader.parseHeader(main.getValue(Constants.EXPORT_PACKAGE)),
+			imports: OSGiHeader.parseHeader(main.getValue(Constants.IMPORT_PACKAGE)),
+			requiredBundles: OSGiHeader.parseHeader(main.getValue(Constants.REQUIRE_BUNDLE)))
+	}
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.internal.util.bnd
+
+import java.util.stream.Collectors
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+
+import org.osgi.namespace.contentNamespace.ContentNamespace
+import org.osgi.resource.Capability
+import org.osgi.resource.Requirement
+import org.osgi.resource.Resource
+
+import aQute.bnd.osgi.repository.XMLResourceGenerator
+import aQute.bnd.osgi.repository.XMLResourceParser
+import aQute.bnd.osgi.resource.CapReqBuilder
+import aQute.bnd.osgi.resource.ResourceBuilder
+import aQute.bnd.osgi.resource.ResourceUtils
+import aQute.bnd.osgi.resource.ResourceUtils.ContentCapability
+import aQute.libg.cryptography.SHA256
+
+/**
+ * Creates an OSGi Repository (R5) index for a directory of bundles.
+ * Capabilities and requirements are derived by bnd from the bundle
+ * manifests (identity, packages, bundles, services and generic
+ * capabilities) together with the content hash and size of each Jar.
+ * If an index already exists, its entries are reused for bundles
+ * with the same content hash.
+ */
+class RepositoryIndex {
+
+	/**
+	 * Number of bundles that were analyzed in the last run.
+	 */
+	int analyzed
+
+	/**
+	 * Number of bundles where an existing index entry was reused in the last run.
+	 */
+	int reused
+
+	private final String name
+
+	/**
+	 * Create a repository index generator.
+	 *
+	 * @param name the repository name
+	 */
+	RepositoryIndex(String name) {
+		this.name = name
+	}
+
+	/**
+	 * Create or update a compressed repository index.
+	 *
+	 * @param bundleFiles the bundle Jars to index
+	 * @param baseDir the directory the content URLs should be relative to,
+	 *   usually the parent directory of the index file
+	 * @param indexFile the target index file, it is written GZIP compressed
+	 */
+	void write(Collection<File> bundleFiles, File baseDir, File indexFile) {
+		Map<String, Resource> previous = readPrevious(indexFile, baseDir)
+
+		analyzed = 0
+		reused = 0
+
+		List<Resource> resources = bundleFiles.parallelStream()
+			.map { File file ->
+				String url = baseDir.toURI().relativize(file.toURI()).toString()
+				Resource resource = reuse(previous[url], file, url)
+				if (resource != null) {
+					synchronized (this) {
+						reused++
+					}
+				}
+				else {
+					resource = analyze(file, new URI(url))
+					if (resource != null) {
+						synchronized (this) {
+							analyzed++
+						}
+					}
+				}
+				resource
+			}
+			.filter { Resource resource -> resource != null }
+			.collect(Collectors.toList())
+
+		// stable order independent of the file system
+		resources.sort { Resource resource -> ResourceUtils.getContentCapability(resource).url().toString() }
+
+		indexFile.parentFile.mkdirs()
+		File tmp = new File(indexFile.parentFile, indexFile.name + '.part')
+		tmp.withOutputStream { OutputStream out ->
+			GZIPOutputStream gzip = new GZIPOutputStream(out)
+			new XMLResourceGenerator()
+				.name(name)
+				.increment(System.currentTimeMillis())
+				.resources(resources)
+				.save(gzip)
+			gzip.finish()
+		}
+		indexFile.delete()
+		tmp.renameTo(indexFile)
+	}
+
+	/**
+	 * Determine if an existing index entry can be used for a file.
+	 *
+	 * @return the resource to reuse or <code>null</code>
+	 */
+	private static Resource reuse(Resource resource, File file, String url) {
+		if (resource == null) {
+			return null
+		}
+		ContentCapability content = ResourceUtils.getContentCapability(resource)
+		if (content == null || content.size() != file.length()) {
+			return null
+		}
+		// the modification time is not reliable, e.g. if a file was restored or copied
+		String sha = SHA256.digest(file).asHex()
+		if (!sha.equalsIgnoreCase(content.osgi_content())) {
+			return null
+		}
+
+		// copy the resource, as the parser may have resolved the URL against the index location
+		ResourceBuilder builder = new ResourceBuilder()
+		resource.getCapabilities(null).each { Capability capability ->
+			CapReqBuilder cap = CapReqBuilder.clone(capability)
+			if (capability.namespace == ContentNamespace.CONTENT_NAMESPACE) {
+				cap.addAttribute(ContentNamespace.CAPABILITY_URL_ATTRIBUTE, url)
+			}
+			builder.addCapability(cap)
+		}
+		resource.getRequirements(null).each { Requirement requirement ->
+			builder.addRequirement(CapReqBuilder.clone(requirement))
+		}
+		builder.build()
+	}
+
+	/**
+	 * Analyze a bundle.
+	 *
+	 * @return the resource or <code>null</code> if the file is no bundle
+	 */
+	private static Resource analyze(File file, URI url) {
+		ResourceBuilder builder = new ResourceBuilder()
+		if (!builder.addFile(file, url)) {
+			return null
+		}
+		builder.build()
+	}
+
+	/**
+	 * Read the entries of an existing index, mapped by content URL relative to the base directory.
+	 */
+	private static Map<String, Resource> readPrevious(File indexFile, File baseDir) {
+		Map<String, Resource> result = [:]
+		if (!indexFile.exists()) {
+			return result
+		}
+
+		try {
+			indexFile.withInputStream { InputStream input ->
+				XMLResourceParser parser = new XMLResourceParser(new GZIPInputStream(input), indexFile.name,
+					indexFile.toURI())
+				try {
+					parser.parse().each { Resource resource ->
+						ContentCapability content = ResourceUtils.getContentCapability(resource)
+						if (content?.url() != null) {
+							URI url = content.url()
+							if (url.absolute) {
+								url = baseDir.toURI().relativize(url)
+							}
+							result[url.toString()] = resource
+						}
+					}
+				} finally {
+					parser.close()
+				}
+			}
+		} catch (Exception e) {
+			// start over with a new index
+			result.clear()
+		}
+
+		result
+	}
+}
@@ -153,6 +153,72 @@ class DependencyHelper {
 		result
 	}
 
+	/**
+	 * Resolve the given dependencies to their artifacts and source artifacts, excluding
+	 * transitive dependencies. The dependencies are resolved together in a lenient detached
+	 * configuration, so artifacts can be downloaded in parallel. Different versions of the
+	 * same module are resolved in separate configurations, as they otherwise would be
+	 * subject to conflict resolution.
+	 *
+	 * @param project the project
+	 * @param dependencies the dependencies to resolve
+	 * @return the resolved artifacts of each dependency, including the source artifacts
+	 *   with the classifier <code>sources</code> if available
+	 */
+	static Map<Dependency, Set<ResolvedArtifact>> getArtifactsWithSources(Project project,
+		Collection<Dependency> dependencies) {
+		// partition dependencies so each module is contained only once per batch
+		List<Map<String, Dependency>> batches = []
+		dependencies.each { Dependency dep ->
+			String module = "${dep.group}:${dep.name}"
+			Map<String, Dependency> batch = batches.find { !it.containsKey(module) }
+			if (batch == null) {
+				batch = [:]
+				batches << batch
+			}
+			batch[module] = dep
+		}
+
+		Map<Dependency, Set<ResolvedArtifact>> result = new IdentityHashMap<>()
+		batches.each { Map<String, Dependency> batch ->
+			List<Dependency> batchDeps = []
+			batch.values().each { Dependency dep ->
+				Dependency copy = dep.copy()
+				if (copy instanceof ModuleDependency) {
+					copy.transitive = false
+				}
+				batchDeps << copy
+
+				if (dep instanceof ExternalModuleDependency) {
+					ExternalModuleDependency sourceDep = new DefaultExternalModuleDependency(
+						dep.group,
+						dep.name,
+						dep.version,
+						null)
+					sourceDep.transitive = false
+					sourceDep.addArtifact(new DefaultDependencyArtifact(dep.name, "source", "jar", "sources", null))
+					batchDeps << sourceDep
+				}
+			}
+
+			Configuration configuration = project.configurations.detachedConfiguration(
+				batchDeps.toArray(new Dependency[batchDeps.size()]))
+			configuration.resolvedConfiguration.lenientConfiguration.artifacts.each { ResolvedArtifact art ->
+				Dependency dep = batch["${art.moduleVersion.id.group}:${art.moduleVersion.id.name}" as String]
+				if (dep != null) {
+					Set<ResolvedArtifact> artifacts = result[dep]
+					if (artifacts == null) {
+						artifacts = new LinkedHashSet<ResolvedArtifact>()
+						result[dep] = artifacts
+					}
+					artifacts << art
+				}
+			}
+		}
+
+		result
+	}
+
 	/**
 	 * Resolve source artifacts for dependencies in the given configuration.
 	 */
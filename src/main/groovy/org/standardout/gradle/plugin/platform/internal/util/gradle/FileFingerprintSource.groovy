@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.internal.util.gradle
+
+import org.gradle.api.file.ConfigurableFileCollection
+import org.gradle.api.provider.ValueSource
+import org.gradle.api.provider.ValueSourceParameters
+
+/**
+ * Fingerprint of a set of files based on path, size and modification time.
+ * When obtained at configuration time the files become inputs of the
+ * configuration cache, so a cache entry is not reused if any of them changed.
+ */
+abstract class FileFingerprintSource implements ValueSource<String, Parameters> {
+
+	interface Parameters extends ValueSourceParameters {
+		ConfigurableFileCollection getFiles()
+	}
+
+	@Override
+	String obtain() {
+		parameters.files.files.collect { File file ->
+			"${file.absolutePath}:${file.length()}:${file.lastModified()}" as String
+		}.sort().join('\n')
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.internal.util.gradle
+
+import javax.inject.Inject
+
+import org.gradle.api.file.ArchiveOperations
+import org.gradle.api.file.FileSystemOperations
+import org.gradle.process.ExecOperations
+
+/**
+ * Gradle services that may be used in task actions instead of the project,
+ * so the tasks can be stored in the configuration cache.
+ * Create an instance using <code>project.objects.newInstance(InjectedServices)</code>.
+ */
+interface InjectedServices {
+
+	@Inject
+	ExecOperations getExec()
+
+	@Inject
+	FileSystemOperations getFileSystem()
+
+	@Inject
+	ArchiveOperations getArchives()
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.util
+
+import static org.assertj.core.api.Assertions.*
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.standardout.gradle.plugin.platform.internal.util.bnd.BundleStore
+
+class BundleStoreTest {
+
+	@TempDir
+	File tempDir
+
+	@Test
+	void testKey() {
+		File source = new File(tempDir, 'source.jar')
+		source.text = 'content'
+
+		def key = BundleStore.key(source, ['Bundle-Version': '1.0.0', 'Bundle-Name': 'Test'], true)
+
+		assertThat(BundleStore.key(source, ['Bundle-Name': 'Test', 'Bundle-Version': '1.0.0'], true))
+			.as('property order should not matter')
+			.isEqualTo(key)
+		assertThat(BundleStore.key(source, ['Bundle-Version': '1.0.1', 'Bundle-Name': 'Test'], true))
+			.isNotEqualTo(key)
+		assertThat(BundleStore.key(source, ['Bundle-Version': '1.0.0', 'Bundle-Name': 'Test'], false))
+			.isNotEqualTo(key)
+	}
+
+	@Test
+	void testRetrieveOrCreate() {
+		def store = new BundleStore(new File(tempDir, 'store'), 1024)
+		int created = 0
+		def create = { File file ->
+			created++
+			file.text = 'bundle'
+			true
+		}
+
+		File first = new File(tempDir, 'first.jar')
+		File second = new File(tempDir, 'second.jar')
+		assertThat(store.retrieveOrCreate('abcdef', first, create)).isTrue()
+		assertThat(store.retrieveOrCreate('abcdef', second, create)).isTrue()
+
+		assertThat(created).as('bundle should only be created once').isEqualTo(1)
+		assertThat(second.text).isEqualTo('bundle')
+	}
+
+	@Test
+	void testEviction() {
+		File storeDir = new File(tempDir, 'store')
+		def store = new BundleStore(storeDir, 15)
+		def create = { File file ->
+			file.text = '0123456789'
+			true
+		}
+
+		store.retrieveOrCreate('aaaaaa', new File(tempDir, 'a.jar'), create)
+		new File(storeDir, 'aa/aaaaaa.jar').setLastModified(1000)
+		store.retrieveOrCreate('bbbbbb', new File(tempDir, 'b.jar'), create)
+
+		assertThat(new File(storeDir, 'aa/aaaaaa.jar')).as('least recently used bundle should be removed').doesNotExist()
+		assertThat(new File(storeDir, 'bb/bbbbbb.jar')).exists()
+	}
+
+	@Test
+	void testSizeIsTracked() {
+		File storeDir = new File(tempDir, 'store')
+		def store = new BundleStore(storeDir, 1024)
+		def create = { File file ->
+			file.text = '0123456789'
+			true
+		}
+
+		store.retrieveOrCreate('aaaaaa', new File(tempDir, 'a.jar'), create)
+		store.retrieveOrCreate('bbbbbb', new File(tempDir, 'b.jar'), create)
+		assertThat(new File(storeDir, '.size').text).isEqualTo('20')
+
+		// size is determined from the stored bundles if not recorded
+		new File(storeDir, '.size').delete()
+		store.retrieveOrCreate('cccccc', new File(tempDir, 'c.jar'), create)
+		assertThat(new File(storeDir, '.size').text).isEqualTo('30')
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.util
+
+import static org.assertj.core.api.Assertions.*
+
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.standardout.gradle.plugin.platform.internal.util.P2Index
+import org.tukaani.xz.XZInputStream
+
+class P2IndexTest {
+
+	@TempDir
+	File updateSiteDir
+
+	@Test
+	void testCreateXzMetadata() {
+		def contentXml = getClass().getClassLoader().getResourceAsStream('artifacts-xml/example.xml').withStream {
+			it.bytes
+		}
+		new File(updateSiteDir, 'artifacts.jar').withOutputStream {
+			ZipOutputStream zip = new ZipOutputStream(it)
+			zip.putNextEntry(new ZipEntry('artifacts.xml'))
+			zip.write(contentXml)
+			zip.closeEntry()
+			zip.close()
+		}
+		new File(updateSiteDir, 'content.xml').text = '<repository />'
+
+		P2Index.createXzMetadata(updateSiteDir)
+
+		def artifacts = new File(updateSiteDir, 'artifacts.xml.xz').withInputStream {
+			new XZInputStream(it).bytes
+		}
+		assertThat(artifacts).isEqualTo(contentXml)
+		def content = new File(updateSiteDir, 'content.xml.xz').withInputStream {
+			new XZInputStream(it).getText('UTF-8')
+		}
+		assertThat(content).isEqualTo('<repository />')
+
+		assertThat(new File(updateSiteDir, 'p2.index').text)
+			.contains('version=1')
+			.contains('metadata.repository.factory.order=content.xml.xz,content.xml,!')
+			.contains('artifact.repository.factory.order=artifacts.xml.xz,artifacts.xml,!')
+	}
+
+	@Test
+	void testNoMetadata() {
+		P2Index.createXzMetadata(updateSiteDir)
+
+		assertThat(new File(updateSiteDir, 'p2.index')).doesNotExist()
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.util
+
+import static org.assertj.core.api.Assertions.*
+
+import java.util.jar.Attributes
+import java.util.jar.JarOutputStream
+import java.util.jar.Manifest
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.standardout.gradle.plugin.platform.internal.util.bnd.PlatformCheck
+
+class PlatformCheckTest {
+
+	@TempDir
+	File tempDir
+
+	private File createBundle(String symbolicName, String version, Map<String, String> headers = [:]) {
+		Manifest manifest = new Manifest()
+		manifest.mainAttributes.put(Attributes.Name.MANIFEST_VERSION, '1.0')
+		manifest.mainAttributes.putValue('Bundle-SymbolicName', symbolicName)
+		manifest.mainAttributes.putValue('Bundle-Version', version)
+		headers.each { key, value ->
+			manifest.mainAttributes.putValue(key, value)
+		}
+
+		File file = new File(tempDir, "${symbolicName}_${version}.jar")
+		new JarOutputStream(new FileOutputStream(file), manifest).close()
+		file
+	}
+
+	@Test
+	void testResolved() {
+		def files = [
+			createBundle('a', '1.0.0', ['Export-Package': 'a.api;version="1.2.0"']),
+			createBundle('b', '2.0.0', [
+				'Import-Package': 'a.api;version="[1.0,2)",java.util,missing.opt;resolution:=optional',
+				'Require-Bundle': 'a;bundle-version="1.0.0"'
+			])
+		]
+
+		def check = new PlatformCheck(['java']).check(files)
+
+		assertThat(check.bundleCount).isEqualTo(2)
+		assertThat(check.ok).isTrue()
+		assertThat(check.splitPackages).isEmpty()
+	}
+
+	@Test
+	void testSystemPackagesAndBundles() {
+		def files = [
+			createBundle('b', '1.0.0', [
+				'Import-Package': 'org.osgi.framework;version="[1.8,2)",org.osgi.util.tracker,org.osgi.service.packageadmin,javax.print,javax.sound.sampled,javax.transaction.xa',
+				'Require-Bundle': 'system.bundle,org.eclipse.osgi;bundle-version="3.10.0"'
+			])
+		]
+
+		def check = new PlatformCheck(PlatformCheck.DEFAULT_SYSTEM_PACKAGES).check(files)
+
+		assertThat(check.ok).isTrue()
+		assertThat(check.unresolved).isEmpty()
+	}
+
+	@Test
+	void testSystemBundleInPlatform() {
+		def files = [
+			createBundle('org.eclipse.osgi', '3.9.0'),
+			createBundle('b', '1.0.0', [
+				'Require-Bundle': 'org.eclipse.osgi;bundle-version="3.10.0"'
+			])
+		]
+
+		def check = new PlatformCheck(PlatformCheck.DEFAULT_SYSTEM_PACKAGES).check(files)
+
+		// the bundle in the platform is checked instead of assuming it is provided
+		assertThat(check.ok).isFalse()
+		assertThat(check.versionMismatches*.requirement)
+			.containsExactly('org.eclipse.osgi')
+	}
+
+	@Test
+	void testUnresolvedAndMismatches() {
+		def files = [
+			createBundle('a', '1.0.0', ['Export-Package': 'a.api;version="1.2.0",shared']),
+			createBundle('c', '1.0.0', ['Export-Package': 'shared']),
+			createBundle('b', '2.0.0', [
+				'Import-Package': 'a.api;version="[2.0,3)",missing',
+				'Require-Bundle': 'a;bundle-version="[1.5,2)",other'
+			])
+		]
+
+		def check = new PlatformCheck().check(files)
+
+		assertThat(check.ok).isFalse()
+		assertThat(check.unresolved*.requirement)
+			.containsExactlyInAnyOrder('missing', 'other')
+		assertThat(check.versionMismatches*.requirement)
+			.containsExactlyInAnyOrder('a.api', 'a')
+		assertThat(check.splitPackages)
+			.containsOnlyKeys('shared')
+		assertThat(check.splitPackages['shared'])
+			.containsExactly('a', 'c')
+	}
+
+	@Test
+	void testUnreadableFile() {
+		File truncated = new File(tempDir, 'truncated.jar')
+		truncated.bytes = [0x50, 0x4b, 0x03, 0x04, 0x14] as byte[]
+		def files = [
+			createBundle('a', '1.0.0'),
+			truncated
+		]
+
+		def check = new PlatformCheck().check(files)
+
+		assertThat(check.ok).isFalse()
+		assertThat(check.bundleCount).isEqualTo(1)
+		assertThat(check.unreadableFiles).containsOnlyKeys('truncated.jar')
+
+		def report = new StringWriter()
+		check.writeReport(report)
+		assertThat(report.toString()).contains('Unreadable files (1)').contains('truncated.jar')
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.util
+
+import static org.assertj.core.api.Assertions.*
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.standardout.gradle.plugin.platform.internal.util.PlatformPlan
+
+class PlatformPlanTest {
+
+	@TempDir
+	File tempDir
+
+	private static Map bundle(String symbolicName, String version, String action = 'wrap', List<String> features = ['f']) {
+		[symbolicName: symbolicName, version: version, id: symbolicName, action: action, features: features]
+	}
+
+	@Test
+	void testNoPreviousPlan() {
+		def plan = new PlatformPlan([bundle('a', '1.0.0')], [[id: 'f', version: '1.0.0', bundles: ['a_1.0.0']]])
+
+		assertThat(plan.diff(null)).containsExactly('+ bundle a 1.0.0', '+ feature f 1.0.0')
+	}
+
+	@Test
+	void testDiff() {
+		def previous = new PlatformPlan([
+			bundle('a', '1.0.0'),
+			bundle('b', '2.0.0'),
+			bundle('c', '1.0.0', 'copy')
+		], [[id: 'f', version: '1.0.0.q1', bundles: ['a_1.0.0', 'b_2.0.0', 'c_1.0.0']]])
+		File file = new File(tempDir, 'plan.json')
+		previous.write(file)
+
+		def plan = new PlatformPlan([
+			bundle('a', '1.1.0'),
+			bundle('c', '1.0.0', 'wrap'),
+			bundle('d', '1.0.0')
+		], [[id: 'f', version: '1.0.0.q2', bundles: ['a_1.1.0', 'c_1.0.0', 'd_1.0.0']]])
+
+		assertThat(plan.diff(PlatformPlan.read(file))).containsExactly(
+			'~ bundle a 1.0.0 -> 1.1.0',
+			'- bundle b 2.0.0',
+			'~ bundle c 1.0.0 action: copy -> wrap',
+			'+ bundle d 1.0.0',
+			'~ feature f 1.0.0.q1 -> 1.0.0.q2 added: a_1.1.0, d_1.0.0 removed: a_1.0.0, b_2.0.0')
+	}
+
+	@Test
+	void testUnchanged() {
+		def plan = new PlatformPlan([bundle('a', '1.0.0')], [[id: 'f', version: '1.0.0', bundles: ['a_1.0.0']]])
+		File file = new File(tempDir, 'plan.json')
+		plan.write(file)
+
+		assertThat(plan.diff(PlatformPlan.read(file))).isEmpty()
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.standardout.gradle.plugin.platform.util
+
+import static org.assertj.core.api.Assertions.*
+
+import java.util.jar.Attributes
+import java.util.jar.JarOutputStream
+import java.util.jar.Manifest
+import java.util.zip.GZIPInputStream
+
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.osgi.resource.Resource
+import org.standardout.gradle.plugin.platform.internal.util.bnd.RepositoryIndex
+
+import aQute.bnd.osgi.repository.XMLResourceParser
+import aQute.bnd.osgi.resource.ResourceUtils
+
+class RepositoryIndexTest {
+
+	@TempDir
+	File tempDir
+
+	private File createBundle(String symbolicName, String version, Map<String, String> headers = [:]) {
+		Manifest manifest = new Manifest()
+		manifest.mainAttributes.put(Attributes.Name.MANIFEST_VERSION, '1.0')
+		manifest.mainAttributes.putValue('Bundle-ManifestVersion', '2')
+		manifest.mainAttributes.putValue('Bundle-SymbolicName', symbolicName)
+		manifest.mainAttributes.putValue('Bundle-Version', version)
+		headers.each { key, value ->
+			manifest.mainAttributes.putValue(key, value)
+		}
+
+		File dir = new File(tempDir, 'plugins')
+		dir.mkdirs()
+		File file = new File(dir, "${symbolicName}_${version}.jar")
+		new JarOutputStream(new FileOutputStream(file), manifest).close()
+		file
+	}
+
+	private List<Resource> readIndex(File indexFile) {
+		indexFile.withInputStream { InputStream input ->
+			XMLResourceParser parser = new XMLResourceParser(new GZIPInputStream(input), indexFile.name,
+				indexFile.toURI())
+			try {
+				parser.parse()
+			} finally {
+				parser.close()
+			}
+		}
+	}
+
+	@Test
+	void testIndex() {
+		def files = [
+			createBundle('a', '1.0.0', ['Export-Package': 'a.api;version="1.2.0"']),
+			createBundle('b', '2.0.0', ['Import-Package': 'a.api;version="[1.0,2)"'])
+		]
+		File indexFile = new File(tempDir, 'index.xml.gz')
+
+		def index = new RepositoryIndex('test')
+		index.write(files, tempDir, indexFile)
+
+		assertThat(index.analyzed).isEqualTo(2)
+		assertThat(index.reused).isEqualTo(0)
+
+		List<Resource> resources = readIndex(indexFile)
+		assertThat(resources).hasSize(2)
+
+		Resource a = resources.find { ResourceUtils.getIdentityCapability(it).osgi_identity() == 'a' }
+		assertThat(a).isNotNull()
+		assertThat(a.getCapabilities('osgi.wiring.package')*.attributes*.get('osgi.wiring.package'))
+			.containsExactly('a.api')
+		def content = ResourceUtils.getContentCapability(a)
+		assertThat(content.size()).isEqualTo(files[0].length())
+		assertThat(content.url().toString()).endsWith('plugins/a_1.0.0.jar')
+
+		Resource b = resources.find { ResourceUtils.getIdentityCapability(it).osgi_identity() == 'b' }
+		assertThat(b.getRequirements('osgi.wiring.package')).hasSize(1)
+	}
+
+	@Test
+	void testIncremental() {
+		def files = [
+			createBundle('a', '1.0.0', ['Export-Package': 'a.api']),
+			createBundle('b', '2.0.0')
+		]
+		File indexFile = new File(tempDir, 'index.xml.gz')
+		new RepositoryIndex('test').write(files, tempDir, indexFile)
+
+		// change one bundle
+		files[1] = createBundle('b', '2.0.0', ['Export-Package': 'b.api'])
+		files[1].setLastModified(indexFile.lastModified() + 2000)
+
+		def index = new RepositoryIndex('test')
+		index.write(files, tempDir, indexFile)
+
+		assertThat(index.reused).isEqualTo(1)
+		assertThat(index.analyzed).isEqualTo(1)
+
+		List<Resource> resources = readIndex(indexFile)
+		Resource b = resources.find { ResourceUtils.getIdentityCapability(it).osgi_identity() == 'b' }
+		assertThat(b.getCapabilities('osgi.wiring.package')).hasSize(1)
+		Resource a = resources.find { ResourceUtils.getIdentityCapability(it).osgi_identity() == 'a' }
+		assertThat(ResourceUtils.getContentCapability(a).url().toString()).endsWith('plugins/a_1.0.0.jar')
+	}
+
+	@Test
+	void testChangedWithOlderModificationTime() {
+		def files = [
+			createBundle('a', '1.0.0', ['Export-Package': 'a.api'])
+		]
+		File indexFile = new File(tempDir, 'index.xml.gz')
+		new RepositoryIndex('test').write(files, tempDir, indexFile)
+
+		// e.g. restored from a backup
+		files[0] = createBundle('a', '1.0.0', ['Export-Package': 'a.spi'])
+		files[0].setLastModified(indexFile.lastModified() - 2000)
+
+		def index = new RepositoryIndex('test')
+		index.write(files, tempDir, indexFile)
+
+		assertThat(index.reused).isEqualTo(0)
+		assertThat(index.analyzed).isEqualTo(1)
+
+		Resource a = readIndex(indexFile)[0]
+		assertThat(a.getCapabilities('osgi.wiring.package')*.attributes*.get('osgi.wiring.package'))
+			.containsExactly('a.spi')
+	}
+}